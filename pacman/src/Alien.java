@@ -1,6 +1,5 @@
 package src;
 import ch.aplu.jgamegrid.Location;
-import java.util.ArrayList;
 
 
 /**
@@ -14,6 +13,8 @@ public class Alien extends Monster {
     // Need these variables for implementation with super constructor
     public static final int NUM_ALIEN_IMAGES = 1;
     public static final String DIRECTORY = "sprites/m_alien.gif";
+    // directions of the possible moves, reused from move to move
+    private final int[] possibleMoves = new int[Compass.NUM_DIRECTIONS];
 
     /**
      * Alien constructor.
@@ -30,33 +31,33 @@ public class Alien extends Monster {
     /**
      * Moves Alien to its next location, purely determined by which 8 neighboring locations
      * it can move to and are closest to Pacman. Overridden from Monster.
+     * @see Monster#getChaseDistance(int, int, boolean)
      */
     @Override
     protected Location nextMonsterLocation(int stepSize) {
         // Aliens pick from the directions it can walk to, and choose one that's closest to pacman
-        ArrayList<Location> possibleMoves = new ArrayList<>();
+        int numPossibleMoves = 0;
         int minDistance = Integer.MAX_VALUE;
-        Location pacmanLocation = getManager().getPacActor().getLocation();
 
-        for (Location.CompassDirection dir: Location.CompassDirection.values()) {
-            Location currLocation = this.getLocation().getAdjacentLocation(dir, stepSize);
-            int distanceToPacman = currLocation.getDistanceTo(pacmanLocation);
+        for (int dir = 0; dir < Compass.NUM_DIRECTIONS; dir++) {
+            Location currLocation = this.getAdjacentLocation(Compass.getDirectionValue(dir), stepSize);
+            int distanceToPacman = this.getChaseDistance(currLocation.x, currLocation.y, true);
 
             // ties mean to randomly pick from all tying directions
-            if (this.canMove(currLocation) && distanceToPacman <= minDistance) {
+            if (this.canMoveTo(currLocation.x, currLocation.y) && distanceToPacman <= minDistance) {
                 if (distanceToPacman < minDistance) {
                     minDistance = distanceToPacman;
-                    possibleMoves = new ArrayList<>();
+                    numPossibleMoves = 0;
                 }
-                possibleMoves.add(currLocation);
+                possibleMoves[numPossibleMoves++] = dir;
             }
         }
 
         // If there are no possible moves, return null
-        if (possibleMoves.isEmpty()) return null;
+        if (numPossibleMoves == 0) return null;
 
         // Randomly pick a direction from all possible minimum distance directions
-        int listIndex = this.getRandomizer().nextInt(0, possibleMoves.size());
-        return possibleMoves.get(listIndex);
+        int listIndex = this.getRandomizer().nextInt(0, numPossibleMoves);
+        return this.getAdjacentLocation(Compass.getDirectionValue(possibleMoves[listIndex]), stepSize);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,203 @@
+package src;
+import src.utility.GameCallback;
+import src.utility.PropertiesLoader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * BatchRunner class which runs a scenario, specified by a properties file, over a range of seeds. Every
+ * game is a headless game, and games are spread across all cores with a fork-join pool. Once all games
+ * have finished, the outcomes are aggregated into win / lose rates, as well as percentiles of the number
+ * of ticks to finish a game and of PacMan's score.
+ * @see HeadlessGame
+ */
+public class BatchRunner {
+    // maximum number of games a single task runs before it is split further
+    private static final int TASK_THRESHOLD = 16;
+    // reported percentiles
+    private static final int[] PERCENTILES = {50, 90, 99};
+    private static final int PERCENT = 100;
+
+    // batch properties
+    private final int fromSeed;
+    private final int toSeed;
+    private final int maxTicks;
+    private final ForkJoinPool pool;
+
+    /**
+     * Result record of a single game in a batch.
+     * @param outcome  the game's outcome
+     * @param numTicks number of ticks the game has run for
+     * @param score    PacMan's final score
+     */
+    public record GameResult(HeadlessGame.Outcome outcome, int numTicks, int score) {}
+
+    /**
+     * BatchRunner constructor.
+     * @param fromSeed first seed of the range (inclusive)
+     * @param toSeed   last seed of the range (inclusive)
+     * @param maxTicks maximum number of ticks each game can run for
+     */
+    public BatchRunner(int fromSeed, int toSeed, int maxTicks) {
+        assert fromSeed <= toSeed && maxTicks > 0;
+        this.fromSeed = fromSeed;
+        this.toSeed = toSeed;
+        this.maxTicks = maxTicks;
+        this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Get the number of games run per scenario.
+     * @return the number of games
+     */
+    public int getNumGames() {
+        return toSeed - fromSeed + 1;
+    }
+
+
+    /**
+     * Run a scenario for every seed within range.
+     * @param properties the scenario's properties
+     * @return           the result of each game, indexed by its seed's offset from the first seed
+     */
+    public GameResult[] run(Properties properties) {
+        GameResult[] results = new GameResult[getNumGames()];
+        pool.invoke(new BatchTask(properties, results, 0, results.length));
+        return results;
+    }
+
+    /**
+     * Run a single game of a scenario with a specified seed. The game's log is discarded.
+     * @param properties the scenario's properties
+     * @param seed       the specified seed
+     * @return           the game's result
+     */
+    private GameResult runGame(Properties properties, int seed) {
+        Properties seededProperties = new Properties();
+        seededProperties.putAll(properties);
+        seededProperties.setProperty("seed", Integer.toString(seed));
+        HeadlessGame game = new HeadlessGame(seededProperties, new GameCallback(Writer.nullWriter()), maxTicks);
+        game.run();
+        return new GameResult(game.getOutcome(), game.getNumTicks(), game.getScore());
+    }
+
+
+    /**
+     * Run every specified scenario and print the aggregated statistics of each.
+     * @param propertiesPaths paths of the properties files
+     */
+    public void runAll(String[] propertiesPaths) {
+        for (String propertiesPath : propertiesPaths) {
+            Properties properties = PropertiesLoader.loadPropertiesFile(propertiesPath);
+            long start = System.nanoTime();
+            GameResult[] results = run(properties);
+            long elapsed = System.nanoTime() - start;
+            System.out.println(summarize(propertiesPath, results, elapsed));
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Summarize the results of a scenario, viz. its outcome rates and the distributions of the number of
+     * ticks to finish (counting only games that did finish) and of the score.
+     * @param propertiesPath path of the scenario's properties file
+     * @param results        results of every game of the scenario
+     * @param elapsedNanos   time taken to run all games, in nanoseconds
+     * @return               the summary
+     */
+    private String summarize(String propertiesPath, GameResult[] results, long elapsedNanos) {
+        int[] outcomeCounts = new int[HeadlessGame.Outcome.values().length];
+        int[] ticks = new int[results.length];
+        int[] scores = new int[results.length];
+        int numFinished = 0;
+        long totalScore = 0;
+        for (int i = 0; i < results.length; i++) {
+            GameResult result = results[i];
+            outcomeCounts[result.outcome().ordinal()]++;
+            if (result.outcome() != HeadlessGame.Outcome.TIMEOUT)
+                ticks[numFinished++] = result.numTicks();
+            scores[i] = result.score();
+            totalScore += result.score();
+        }
+        ticks = Arrays.copyOf(ticks, numFinished);
+        Arrays.sort(ticks);
+        Arrays.sort(scores);
+
+        // outcome rates
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%s (seeds %d-%d, %d games, %.2fs)%n", propertiesPath, fromSeed, toSeed,
+                results.length, elapsedNanos / 1e9));
+        summary.append("  outcome:");
+        for (HeadlessGame.Outcome outcome : HeadlessGame.Outcome.values())
+            summary.append(String.format(" %s %.2f%%", outcome.toString().toLowerCase(),
+                    (double) PERCENT * outcomeCounts[outcome.ordinal()] / results.length));
+
+        // distributions
+        summary.append(String.format("%n  ticks:  ")).append(distribution(ticks));
+        summary.append(String.format("%n  score:  mean %.2f ", (double) totalScore / results.length))
+               .append(distribution(scores));
+        return summary.toString();
+    }
+
+    /**
+     * Describe a sorted distribution by its percentiles and its extrema.
+     * @param sorted the sorted values
+     * @return       the description
+     */
+    private static String distribution(int[] sorted) {
+        if (sorted.length == 0) return "n/a";
+        StringBuilder description = new StringBuilder("min " + sorted[0]);
+        for (int percentile : PERCENTILES) {
+            int index = (int) Math.ceil((double) percentile * sorted.length / PERCENT) - 1;
+            description.append(String.format(" p%d %d", percentile, sorted[Math.max(index, 0)]));
+        }
+        return description.append(" max ").append(sorted[sorted.length - 1]).toString();
+    }
+
+
+    /**
+     * Fork-join task running the games of a range of seeds. The range is split in half until it is small
+     * enough to be run sequentially; each game writes its result to its own slot, so no merging is needed.
+     * @see RecursiveAction
+     */
+    private class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Properties properties;
+        private final GameResult[] results;
+        private final int from;
+        private final int to;
+
+        /**
+         * BatchTask constructor.
+         * @param properties the scenario's properties
+         * @param results    the results of all games
+         * @param from       first index of the task's range (inclusive)
+         * @param to         last index of the task's range (exclusive)
+         */
+        private BatchTask(Properties properties, GameResult[] results, int from, int to) {
+            this.properties = properties;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Run the games, or split the range if it is too large.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= TASK_THRESHOLD) {
+                for (int i = from; i < to; i++)
+                    results[i] = runGame(properties, fromSeed + i);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(properties, results, from, middle),
+                      new BatchTask(properties, results, middle, to));
+        }
+    }
+}
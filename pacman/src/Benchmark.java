@@ -0,0 +1,135 @@
+package src;
+import src.utility.PropertiesLoader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+
+/**
+ * Benchmark abstract class of the benchmarks measuring the game on the stock maze, as well as on generated
+ * mazes made of the stock maze repeated across and down. A benchmark runs on one maze after another,
+ * measuring the time and the memory allocated per operation of everything it benchmarks, and prints the
+ * measurements of each maze. Memory is read from the current thread's allocation counter, when the JVM
+ * supports it. Every game is headless, so a benchmark should be run with the system property
+ * <code>java.awt.headless</code> set to true.
+ * @see GeneratedMaze
+ * @see HeadlessGame
+ */
+public abstract class Benchmark {
+    // seed and version of every game
+    private static final String SEED = "1";
+    private static final String VERSION = "multiverse";
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    // sum over the results of every operation, so that none of them can be optimized away
+    private long checksum = 0;
+
+    /**
+     * Measurement record of a single operation.
+     * @param name       the operation's name
+     * @param nanosPerOp average time per operation, in nanoseconds
+     * @param bytesPerOp average memory allocated per operation, in bytes, or NaN if it cannot be measured
+     */
+    public record Measurement(String name, double nanosPerOp, double bytesPerOp) {}
+
+
+    /**
+     * Run on the stock maze and on generated mazes of specified sizes, and print the measurements of each
+     * maze, followed by the checksum.
+     * @param mazeSizes sizes of the generated mazes, as the number of stock mazes across and down
+     *                  (e.g. 10x10)
+     */
+    public void runAll(String[] mazeSizes) {
+        printMeasurements("stock maze", run(null, new GeneratedMaze(1, 1)));
+        for (String mazeSize : mazeSizes) {
+            GeneratedMaze maze = GeneratedMaze.parse(mazeSize);
+            try {
+                Path mazePath = maze.write();
+                try {
+                    printMeasurements(maze.toString(), run(mazePath.toString(), maze));
+                } finally {
+                    Files.deleteIfExists(mazePath);
+                }
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+        System.out.println("checksum: " + checksum);
+    }
+
+    /**
+     * Run on a maze, measuring every operation benchmarked.
+     * @param mazePath path of the maze file, or null for the stock maze
+     * @param maze     the maze, which is a single copy of the stock maze for the stock maze
+     * @return         the measurement of every operation
+     */
+    public abstract Measurement[] run(String mazePath, GeneratedMaze maze);
+
+    /**
+     * Print a measurement, on a line of its own under the name of its maze.
+     * @param measurement the measurement
+     */
+    protected abstract void printMeasurement(Measurement measurement);
+
+    /**
+     * Add the result of operations to the checksum.
+     * @param result a value depending on the result of every operation
+     */
+    protected void addToChecksum(long result) {
+        checksum += result;
+    }
+
+
+    /**
+     * Create the properties of a benchmarked game, where PacMan moves automatically and there are no
+     * monsters.
+     * @param mazePath       path of the maze file, or null for the stock maze
+     * @param pacManLocation PacMan's location, as its coordinates separated by a comma
+     * @return               the properties
+     */
+    public static Properties createProperties(String mazePath, String pacManLocation) {
+        Properties properties = new Properties();
+        properties.setProperty("version", VERSION);
+        properties.setProperty("seed", SEED);
+        if (mazePath != null)
+            properties.setProperty(PropertiesLoader.MAZE_PROPERTY, mazePath);
+        properties.setProperty("PacMan" + PropertiesLoader.LOCATION_EXTENSION, pacManLocation);
+        properties.setProperty("PacMan" + PropertiesLoader.AUTO_EXTENSION, Boolean.toString(true));
+        properties.setProperty("PacMan" + PropertiesLoader.MOVE_EXTENSION, "");
+        for (Monster.MonsterType type : Monster.MonsterType.values())
+            properties.setProperty(type + PropertiesLoader.LOCATION_EXTENSION, "");
+        return properties;
+    }
+
+    /**
+     * Check whether the memory allocated by the current thread can be measured.
+     * @return true if it can be measured, false if otherwise
+     */
+    protected boolean isAllocationMeasured() {
+        return threadBean instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()
+                && bean.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Get the total memory allocated by the current thread so far.
+     * @return the memory, in bytes, or 0 if it cannot be measured
+     */
+    protected long getAllocatedBytes() {
+        return isAllocationMeasured() ?
+                ((com.sun.management.ThreadMXBean) threadBean).getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Print the measurements of a maze.
+     * @param mazeName     name of the maze
+     * @param measurements the measurements
+     */
+    private void printMeasurements(String mazeName, Measurement[] measurements) {
+        System.out.println(mazeName);
+        for (Measurement measurement : measurements)
+            printMeasurement(measurement);
+    }
+}
@@ -0,0 +1,104 @@
+package src;
+
+
+/**
+ * Bitsets class answering queries on bitsets kept as words of a <code>long</code> array, where bit
+ * <code>i</code> of a bitset is bit <code>i % 64</code> of its word <code>i / 64</code>. A bitset may be a
+ * slice of a larger array holding many bitsets back to back, starting at a given word. Queries skip whole
+ * words at a time, so they take time in the number of words rather than in the number of bits.
+ * @see Orion
+ * @see MonsterSwarm
+ */
+public final class Bitsets {
+    // number of bits per word
+    private static final int WORD_SHIFT = 6;
+    // returned when there is no such bit
+    public static final int NO_BIT = -1;
+
+    /**
+     * Bitsets constructor, private as the class only has static methods.
+     */
+    private Bitsets() {}
+
+    /**
+     * Get the number of words a bitset of a number of bits takes.
+     * @param numBits the number of bits
+     * @return        the number of words
+     */
+    public static int getNumWords(int numBits) {
+        return (numBits + Long.SIZE - 1) >>> WORD_SHIFT;
+    }
+
+    /**
+     * Check whether a bit of a bitset is set.
+     * @param words  the array holding the bitset
+     * @param offset the bitset's first word in the array
+     * @param bit    the bit
+     * @return       true if set, false if otherwise
+     */
+    public static boolean get(long[] words, int offset, int bit) {
+        return (words[offset + (bit >>> WORD_SHIFT)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Set a bit of a bitset.
+     * @param words  the array holding the bitset
+     * @param offset the bitset's first word in the array
+     * @param bit    the bit
+     * @return       true if the bit was clear, false if it was already set
+     */
+    public static boolean set(long[] words, int offset, int bit) {
+        int index = offset + (bit >>> WORD_SHIFT);
+        long word = words[index];
+        words[index] = word | (1L << bit);
+        return (word & (1L << bit)) == 0;
+    }
+
+    /**
+     * Get the first clear bit of a bitset from a specified bit onward.
+     * @param words   the array holding the bitset
+     * @param offset  the bitset's first word in the array
+     * @param numBits the number of bits of the bitset
+     * @param from    the bit to start from (inclusive)
+     * @return        the first clear bit, or <code>NO_BIT</code> if there is none
+     */
+    public static int nextClearBit(long[] words, int offset, int numBits, int from) {
+        if (from >= numBits) return NO_BIT;
+        int wordIndex = from >>> WORD_SHIFT;
+        int numWords = getNumWords(numBits);
+        long word = ~words[offset + wordIndex] & (-1L << from);
+        while (word == 0) {
+            if (++wordIndex == numWords) return NO_BIT;
+            word = ~words[offset + wordIndex];
+        }
+        int bit = (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+        return bit < numBits ? bit : NO_BIT;
+    }
+
+    /**
+     * Get the clear bit of a bitset with a specified rank, viz. the number of clear bits before it.
+     * @param words   the array holding the bitset
+     * @param offset  the bitset's first word in the array
+     * @param numBits the number of bits of the bitset
+     * @param rank    the rank, from 0
+     * @return        the clear bit, or <code>NO_BIT</code> if there are not that many clear bits
+     */
+    public static int selectClearBit(long[] words, int offset, int numBits, int rank) {
+        int numWords = getNumWords(numBits);
+        for (int wordIndex = 0; wordIndex < numWords; wordIndex++) {
+            long word = ~words[offset + wordIndex];
+            // bits past the end of the bitset are never clear bits of it
+            int bitsLeft = numBits - (wordIndex << WORD_SHIFT);
+            if (bitsLeft < Long.SIZE) word &= (1L << bitsLeft) - 1;
+            int numClear = Long.bitCount(word);
+            if (rank >= numClear) {
+                rank -= numClear;
+                continue;
+            }
+            for (; rank > 0; rank--)
+                word &= word - 1;
+            return (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+        }
+        return NO_BIT;
+    }
+}
@@ -0,0 +1,120 @@
+package src;
+
+
+/**
+ * CellMap class which maps cells of the game grid to objects, keyed by their cell id rather than by their
+ * location. It is backed by a dense array with a slot for every cell, together with a bitset of occupied
+ * cells, so that looking up, adding or removing an entry is a single array access which never allocates.
+ * <p>
+ * Occupied cells are iterated in ascending order of cell id, which is row-major order of the grid:
+ * <pre>
+ *     for (int cell = map.nextCell(0); cell != CellMap.NO_CELL; cell = map.nextCell(cell + 1))
+ *         ...
+ * </pre>
+ * @param <T> the type of mapped objects; in this context, items
+ * @see PacManGameGrid
+ * @see ObjectManager
+ */
+public class CellMap<T> {
+    // number of bits per word of the bitset
+    private static final int WORD_SHIFT = 6;
+    // returned by nextCell when there are no more occupied cells
+    public static final int NO_CELL = -1;
+
+    // the mapped object of every cell, or null if unoccupied
+    private final Object[] values;
+    // the bitset, where a set bit indicates an occupied cell
+    private final long[] occupied;
+    // number of occupied cells
+    private int size = 0;
+
+    /**
+     * CellMap constructor, where every cell is initially unoccupied.
+     * @param numCells the number of cells of the grid
+     */
+    public CellMap(int numCells) {
+        assert numCells > 0;
+        this.values = new Object[numCells];
+        this.occupied = new long[(numCells + Long.SIZE - 1) >>> WORD_SHIFT];
+    }
+
+    /**
+     * Get the number of occupied cells.
+     * @return the number of occupied cells
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether no cell is occupied.
+     * @return true if empty, false if otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Check whether a specified cell is occupied.
+     * @param cell the cell id
+     * @return     true if occupied, false if otherwise
+     */
+    public boolean containsKey(int cell) {
+        return (occupied[cell >>> WORD_SHIFT] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Get the object mapped to a specified cell.
+     * @param cell the cell id
+     * @return     the mapped object, or null if the cell is unoccupied
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int cell) {
+        return (T) values[cell];
+    }
+
+    /**
+     * Map an object to a specified cell, replacing any object that was previously mapped to it.
+     * @param cell  the cell id
+     * @param value the object, which cannot be null
+     */
+    public void put(int cell, T value) {
+        assert value != null;
+        if (! containsKey(cell)) {
+            occupied[cell >>> WORD_SHIFT] |= 1L << cell;
+            size++;
+        }
+        values[cell] = value;
+    }
+
+    /**
+     * Remove the object mapped to a specified cell. Does nothing if the cell is unoccupied.
+     * @param cell the cell id
+     * @return     the removed object, or null if the cell was unoccupied
+     */
+    public T remove(int cell) {
+        T value = get(cell);
+        if (containsKey(cell)) {
+            occupied[cell >>> WORD_SHIFT] &= ~(1L << cell);
+            values[cell] = null;
+            size--;
+        }
+        return value;
+    }
+
+    /**
+     * Get the first occupied cell from a specified cell onward.
+     * @param from the cell id to start from (inclusive)
+     * @return     the first occupied cell id, or <code>NO_CELL</code> if there is none
+     */
+    public int nextCell(int from) {
+        int wordIndex = from >>> WORD_SHIFT;
+        if (from < 0 || wordIndex >= occupied.length) return NO_CELL;
+        long word = occupied[wordIndex] & (-1L << from);
+        while (word == 0) {
+            if (++wordIndex == occupied.length) return NO_CELL;
+            word = occupied[wordIndex];
+        }
+        return (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+    }
+}
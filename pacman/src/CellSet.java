@@ -0,0 +1,98 @@
+package src;
+
+
+/**
+ * CellSet class representing a set of cells of the game grid, keyed by their cell id. Cells are kept in a
+ * bitset, one bit per cell in row-major order, so that adding, removing or looking up a cell is a single
+ * array access which never allocates. It holds grid data that needs no object per cell, such as pills.
+ * <p>
+ * Cells are iterated in ascending order of cell id, as with <code>CellMap</code>:
+ * <pre>
+ *     for (int cell = set.nextCell(0); cell != CellMap.NO_CELL; cell = set.nextCell(cell + 1))
+ *         ...
+ * </pre>
+ * @see CellMap
+ * @see ObjectManager
+ */
+public class CellSet {
+    // number of bits per word of the bitset
+    private static final int WORD_SHIFT = 6;
+
+    // the bitset, where a set bit indicates a cell in the set
+    private final long[] cells;
+    // number of cells in the set
+    private int size = 0;
+
+    /**
+     * CellSet constructor, where the set is initially empty.
+     * @param numCells the number of cells of the grid
+     */
+    public CellSet(int numCells) {
+        assert numCells > 0;
+        this.cells = new long[(numCells + Long.SIZE - 1) >>> WORD_SHIFT];
+    }
+
+    /**
+     * Get the number of cells in the set.
+     * @return the number of cells
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether the set has no cell.
+     * @return true if empty, false if otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Check whether a specified cell is in the set.
+     * @param cell the cell id
+     * @return     true if in the set, false if otherwise
+     */
+    public boolean contains(int cell) {
+        return (cells[cell >>> WORD_SHIFT] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Add a specified cell to the set. Does nothing if it is already in the set.
+     * @param cell the cell id
+     */
+    public void add(int cell) {
+        if (! contains(cell)) {
+            cells[cell >>> WORD_SHIFT] |= 1L << cell;
+            size++;
+        }
+    }
+
+    /**
+     * Remove a specified cell from the set. Does nothing if it is not in the set.
+     * @param cell the cell id
+     * @return     true if the cell was in the set, false if otherwise
+     */
+    public boolean remove(int cell) {
+        if (! contains(cell)) return false;
+        cells[cell >>> WORD_SHIFT] &= ~(1L << cell);
+        size--;
+        return true;
+    }
+
+    /**
+     * Get the first cell in the set from a specified cell onward.
+     * @param from the cell id to start from (inclusive)
+     * @return     the first cell id, or <code>CellMap.NO_CELL</code> if there is none
+     */
+    public int nextCell(int from) {
+        int wordIndex = from >>> WORD_SHIFT;
+        if (from < 0 || wordIndex >= cells.length) return CellMap.NO_CELL;
+        long word = cells[wordIndex] & (-1L << from);
+        while (word == 0) {
+            if (++wordIndex == cells.length) return CellMap.NO_CELL;
+            word = cells[wordIndex];
+        }
+        return (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+    }
+}
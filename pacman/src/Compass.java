@@ -0,0 +1,165 @@
+package src;
+import ch.aplu.jgamegrid.Location;
+
+
+/**
+ * Compass class answering the location queries of movement rules with integer arithmetic, so that deciding a
+ * move allocates no <code>Location</code>. Directions are the 8 compass directions, identified by their index
+ * in <code>Location.CompassDirection.values()</code>, each being 45 degrees clockwise from the previous one.
+ * <p>
+ * The offsets of the locations a number of steps away in every direction are computed once, from
+ * <code>Location.getAdjacentLocation</code> itself, so every query gives the exact same location as
+ * <code>Location</code> would; this includes its rounding, where a diagonal of 2 steps only moves 1 cell
+ * along each axis.
+ * @see Location
+ */
+public final class Compass {
+    // compass directions, in order of their index
+    public static final Location.CompassDirection[] DIRECTIONS = Location.CompassDirection.values();
+    public static final int NUM_DIRECTIONS = DIRECTIONS.length;
+    private static final int DIRECTION_ANGLE = 360 / NUM_DIRECTIONS;
+    // index indicating no compass direction
+    public static final int NO_DIRECTION = -1;
+    // furthest number of steps any movement rule takes or looks at
+    public static final int MAX_STEP_SIZE = Monster.AGGRESSIVE_STEP_SIZE + Wizard.BEYOND_WALL;
+
+    // offsets of the location a number of steps away in every direction, by number of steps and direction
+    private static final int[][] OFFSETS_X = new int[MAX_STEP_SIZE + 1][NUM_DIRECTIONS];
+    private static final int[][] OFFSETS_Y = new int[MAX_STEP_SIZE + 1][NUM_DIRECTIONS];
+    static {
+        Location origin = new Location(0, 0);
+        for (int stepSize = 1; stepSize <= MAX_STEP_SIZE; stepSize++)
+            for (int direction = 0; direction < NUM_DIRECTIONS; direction++) {
+                Location adjacent = origin.getAdjacentLocation(DIRECTIONS[direction], stepSize);
+                OFFSETS_X[stepSize][direction] = adjacent.getX();
+                OFFSETS_Y[stepSize][direction] = adjacent.getY();
+            }
+    }
+
+    /**
+     * Compass constructor, private as the class only has static methods.
+     */
+    private Compass() {}
+
+    /**
+     * Get the index of a direction value, as given by <code>Actor.getDirection</code>.
+     * @param directionValue the direction value, in degrees clockwise from east
+     * @return               the index, or <code>NO_DIRECTION</code> if the value is not a compass direction
+     */
+    public static int indexOf(double directionValue) {
+        double normalized = directionValue % 360;
+        if (normalized < 0) normalized += 360;
+        int direction = (int) normalized / DIRECTION_ANGLE;
+        return direction * DIRECTION_ANGLE == normalized ? direction : NO_DIRECTION;
+    }
+
+    /**
+     * Get the direction value of a direction index.
+     * @param direction the direction index
+     * @return          the direction value, in degrees clockwise from east
+     */
+    public static int getDirectionValue(int direction) {
+        return DIRECTIONS[direction].getDirection();
+    }
+
+    /**
+     * Turn a direction index by an angle, as <code>Actor.turn</code> turns a direction value.
+     * @param direction the direction index
+     * @param angle     the angle, in degrees clockwise, a multiple of 45
+     * @return          the turned direction index
+     */
+    public static int turn(int direction, int angle) {
+        assert angle % DIRECTION_ANGLE == 0;
+        return Math.floorMod(direction + angle / DIRECTION_ANGLE, NUM_DIRECTIONS);
+    }
+
+    /**
+     * Check whether the offsets of a number of steps are known.
+     * @param stepSize the number of steps
+     * @return         true if known, false if otherwise
+     */
+    public static boolean hasOffsets(int stepSize) {
+        return stepSize >= 1 && stepSize <= MAX_STEP_SIZE;
+    }
+
+    /**
+     * Get the x-offset of the location a number of steps away in a direction.
+     * @param direction the direction index
+     * @param stepSize  the number of steps
+     * @return          the x-offset
+     */
+    public static int getOffsetX(int direction, int stepSize) {
+        return OFFSETS_X[stepSize][direction];
+    }
+
+    /**
+     * Get the y-offset of the location a number of steps away in a direction.
+     * @param direction the direction index
+     * @param stepSize  the number of steps
+     * @return          the y-offset
+     */
+    public static int getOffsetY(int direction, int stepSize) {
+        return OFFSETS_Y[stepSize][direction];
+    }
+
+    /**
+     * Fill an array with every direction index, in order, as a list of directions to pick from.
+     * @param directions the array, of at least <code>NUM_DIRECTIONS</code> entries
+     * @return           the number of directions
+     */
+    public static int fillDirections(int[] directions) {
+        for (int direction = 0; direction < NUM_DIRECTIONS; direction++)
+            directions[direction] = direction;
+        return NUM_DIRECTIONS;
+    }
+
+    /**
+     * Remove a direction from a list of directions filled by <code>int fillDirections(int[] directions)</code>,
+     * keeping the others in order as <code>ArrayList.remove</code> would.
+     * @param directions    the list of directions
+     * @param index         index of the direction to remove
+     * @param numDirections number of directions in the list
+     * @return              the new number of directions
+     */
+    public static int removeDirection(int[] directions, int index, int numDirections) {
+        System.arraycopy(directions, index + 1, directions, index, numDirections - index - 1);
+        return numDirections - 1;
+    }
+
+    /**
+     * Get the rounded distance between 2 locations, as with <code>Location.getDistanceTo</code>.
+     * @param x1 x-coordinate of the first location
+     * @param y1 y-coordinate of the first location
+     * @param x2 x-coordinate of the second location
+     * @param y2 y-coordinate of the second location
+     * @return   the distance
+     */
+    public static int getDistance(int x1, int y1, int x2, int y2) {
+        int dx = x2 - x1, dy = y2 - y1;
+        return (int) (Math.sqrt(dx * dx + dy * dy) + 0.5);
+    }
+
+    /**
+     * Get the orthogonal direction from a location to another, as with
+     * <code>Location.get4CompassDirectionTo</code>.
+     * @param x1 x-coordinate of the location
+     * @param y1 y-coordinate of the location
+     * @param x2 x-coordinate of the other location
+     * @param y2 y-coordinate of the other location
+     * @return   the direction index
+     */
+    public static int get4CompassDirection(int x1, int y1, int x2, int y2) {
+        double angle = Math.toDegrees(Math.atan2(y2 - y1, x2 - x1));
+        if (angle < 0) angle += 360;
+        Location.CompassDirection direction;
+        if (angle > 315 || angle <= 45)
+            direction = Location.CompassDirection.EAST;
+        else if (angle <= 135)
+            direction = Location.CompassDirection.SOUTH;
+        else if (angle <= 225)
+            direction = Location.CompassDirection.WEST;
+        else
+            direction = Location.CompassDirection.NORTH;
+        return direction.ordinal();
+    }
+}
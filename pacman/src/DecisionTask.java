@@ -0,0 +1,60 @@
+package src;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * DecisionTask class, a fork/join task letting monsters decide their moves for a tick in parallel. The
+ * range of monsters is split in halves until small enough, and each part is handed to a decider. Deciders
+ * must only write to the monsters in their part; the moves are then made sequentially, in a fixed order,
+ * so that the game is the same however many threads decide.
+ * @see HeadlessGame
+ * @see MonsterSwarm
+ */
+public class DecisionTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    // maximum number of monsters a single task decides for before it is split further
+    private static final int TASK_THRESHOLD = 256;
+
+    /**
+     * Decider interface, for deciding the moves of a range of monsters.
+     */
+    @FunctionalInterface
+    public interface Decider {
+        /**
+         * Decide the moves of a range of monsters.
+         * @param from index of the first monster
+         * @param to   index after the last monster
+         */
+        void decide(int from, int to);
+    }
+
+    private final Decider decider;
+    private final int from;
+    private final int to;
+
+    /**
+     * DecisionTask constructor.
+     * @param decider the decider
+     * @param from    index of the first monster
+     * @param to      index after the last monster
+     */
+    public DecisionTask(Decider decider, int from, int to) {
+        assert decider != null && from <= to;
+        this.decider = decider;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Decide the moves of the task's monsters, splitting the task if there are too many of them.
+     */
+    @Override
+    protected void compute() {
+        if (to - from <= TASK_THRESHOLD) {
+            decider.decide(from, to);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new DecisionTask(decider, from, middle), new DecisionTask(decider, middle, to));
+    }
+}
@@ -1,5 +1,7 @@
 package src;
 import src.utility.PropertiesLoader;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Properties;
 
 
@@ -13,18 +15,158 @@ import java.util.Properties;
  */
 public class Driver {
     public static final String DEFAULT_PROPERTIES_PATH = "pacman/properties/test5.properties";
+    // option to run the game without a game window
+    public static final String HEADLESS_OPTION = "--headless";
+    // option to run scenarios over a range of seeds, followed by the range (e.g. 1-1000) and properties files
+    public static final String BATCH_OPTION = "--batch";
+    public static final String SEED_RANGE_SEPARATOR = "-";
+    // option to benchmark movement, optionally followed by sizes of generated mazes (e.g. 10x10)
+    public static final String BENCHMARK_OPTION = "--benchmark";
+    // option to benchmark starting a level, optionally followed by sizes of generated mazes (e.g. 10x10)
+    public static final String STARTUP_OPTION = "--startup";
+    // option to run the regression checks
+    public static final String TEST_OPTION = "--test";
 
     /**
      * Entry point to program.
-     * @param args the command line arguments
+     * @param args the command line arguments, viz. either
+     *             <ul>
+     *                 <li>an optional headless option followed by an optional properties file path, or
+     *                 <li>the batch option followed by a seed range and one or more properties file paths, or
+     *                 <li>the benchmark option followed by optional sizes of generated mazes, or
+     *                 <li>the startup option followed by optional sizes of generated mazes, or
+     *                 <li>the test option
+     *             </ul>
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals(BATCH_OPTION)) {
+            runBatch(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals(BENCHMARK_OPTION)) {
+            runBenchmark(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals(STARTUP_OPTION)) {
+            runStartupBenchmark(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals(TEST_OPTION)) {
+            runTests();
+            return;
+        }
         String propertiesPath = DEFAULT_PROPERTIES_PATH;
-        if (args.length > 0) {
-            propertiesPath = args[0];
+        boolean isHeadless = args.length > 0 && args[0].equals(HEADLESS_OPTION);
+        int pathIndex = isHeadless ? 1 : 0;
+        if (args.length > pathIndex) {
+            propertiesPath = args[pathIndex];
         }
+
+        // headless mode must be set before anything graphical is loaded
+        if (isHeadless)
+            System.setProperty("java.awt.headless", "true");
         final Properties properties = PropertiesLoader.loadPropertiesFile(propertiesPath);
+        if (isHeadless) {
+            HeadlessGame game = new HeadlessGame(properties);
+            game.run();
+            System.out.println(propertiesPath + ": " + game.getOutcome() + " after " +
+                    game.getNumTicks() + " ticks");
+            System.exit(0);
+        }
         Game game = new Game(properties);
         game.run();
     }
+
+    /**
+     * Run the batch mode, where every specified scenario is run headless over a range of seeds, and the
+     * aggregated statistics of each scenario are printed.
+     * @param args the command line arguments, starting with the batch option
+     * @see        BatchRunner
+     */
+    private static void runBatch(String[] args) {
+        int[] seedRange = args.length < 3 ? null : parseSeedRange(args[1]);
+        if (seedRange == null) {
+            System.err.println("Usage: " + BATCH_OPTION + " <from seed>" + SEED_RANGE_SEPARATOR +
+                    "<to seed> <properties file>...");
+            System.exit(1);
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        BatchRunner batchRunner = new BatchRunner(seedRange[0], seedRange[1], HeadlessGame.DEFAULT_MAX_TICKS);
+        batchRunner.runAll(Arrays.copyOfRange(args, 2, args.length));
+        System.exit(0);
+    }
+
+    /**
+     * Parse a seed range, viz. its first and last seed separated by the seed range separator (e.g. 1-1000, or
+     * -5--1 for negative seeds). A single seed is also a valid range.
+     * @param seedRange the seed range
+     * @return          the first and last seed, or null if the range is not valid
+     */
+    private static int[] parseSeedRange(String seedRange) {
+        // a separator at the very start is the sign of the first seed
+        int separator = seedRange.indexOf(SEED_RANGE_SEPARATOR, 1);
+        try {
+            int fromSeed = Integer.parseInt(separator == -1 ? seedRange : seedRange.substring(0, separator));
+            int toSeed = separator == -1 ? fromSeed :
+                    Integer.parseInt(seedRange.substring(separator + SEED_RANGE_SEPARATOR.length()));
+            // every seed of the range has a result of its own, so the range must fit in an array
+            if (fromSeed > toSeed || (long) toSeed - fromSeed >= Integer.MAX_VALUE)
+                return null;
+            return new int[]{fromSeed, toSeed};
+        }
+        catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Run the benchmark mode, where the movement of every actor is measured on the stock maze, as well as
+     * on generated mazes of the specified sizes, or of the default sizes if none is specified.
+     * @param args the command line arguments, starting with the benchmark option
+     * @see        MovementBenchmark
+     */
+    private static void runBenchmark(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        String[] mazeSizes = args.length > 1 ?
+                Arrays.copyOfRange(args, 1, args.length) : MovementBenchmark.DEFAULT_MAZE_SIZES;
+        MovementBenchmark benchmark = new MovementBenchmark(MovementBenchmark.DEFAULT_WARMUP_OPS,
+                MovementBenchmark.DEFAULT_MEASURED_OPS);
+        benchmark.runAll(mazeSizes);
+        System.exit(0);
+    }
+
+    /**
+     * Run the startup benchmark mode, where starting a level is measured on the stock maze, as well as on
+     * generated mazes of the specified sizes, or of the default sizes if none is specified.
+     * @param args the command line arguments, starting with the startup option
+     * @see        StartupBenchmark
+     */
+    private static void runStartupBenchmark(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        String[] mazeSizes = args.length > 1 ?
+                Arrays.copyOfRange(args, 1, args.length) : StartupBenchmark.DEFAULT_MAZE_SIZES;
+        StartupBenchmark benchmark = new StartupBenchmark(StartupBenchmark.DEFAULT_WARMUP_STARTS,
+                StartupBenchmark.DEFAULT_MEASURED_STARTS);
+        benchmark.runAll(mazeSizes);
+        System.exit(0);
+    }
+
+    /**
+     * Run the test mode, where every regression check is run headless in turn. The run exits with a status
+     * of 1 upon the first failing check, and of 0 once every check has passed.
+     * @see RegressionTest
+     */
+    private static void runTests() {
+        System.setProperty("java.awt.headless", "true");
+        try {
+            new RegressionTest().runAll();
+        }
+        catch (IOException | RuntimeException | AssertionError ex) {
+            // a failed check must end the run, even though the game grid's threads are still running
+            ex.printStackTrace();
+            System.exit(1);
+        }
+        System.exit(0);
+    }
 }
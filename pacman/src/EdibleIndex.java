@@ -0,0 +1,206 @@
+package src;
+
+
+/**
+ * EdibleIndex class which indexes the cells of all items PacMan is required to eat (viz. pills and gold
+ * pieces) so that the one closest to a location can be found without going through every item. The grid is
+ * divided into square buckets of 8 by 8 cells, each of which is a single 64-bit word where a set bit
+ * indicates an edible item in the corresponding cell. A query searches the buckets in rings of increasing
+ * distance around the location, and stops as soon as no further ring can hold a closer item; hence its cost
+ * depends on how far the closest item is rather than on how many items there are.
+ * <p>
+ * Distances are rounded as with <code>Location.getDistanceTo</code>. Ties are broken in favor of the item
+ * PacMan used to find first when it went through a hash map of all items keyed by their locations: the item
+ * in the smallest bucket of that map, then the one put to it first, viz. the first in row-major order.
+ * @see PacActor
+ * @see HashableLocation
+ * @see ObjectManager
+ */
+public class EdibleIndex {
+    // bucket dimensions: each bucket is BUCKET_SIZE x BUCKET_SIZE cells, so it fits in a single word
+    private static final int BUCKET_SHIFT = 3;
+    private static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+    private static final int BUCKET_MASK = BUCKET_SIZE - 1;
+
+    // dimensions of the grid, and of the grid of buckets
+    private final int width;
+    private final int height;
+    private final int numBucketsX;
+    private final int numBucketsY;
+    // the buckets, in row-major order of buckets
+    private final long[] buckets;
+    // number of indexed items
+    private int size = 0;
+    // capacity of the hash map of all items which ties are broken by
+    private int itemMapCapacity = HashableLocation.getHashMapCapacity(0);
+
+    // closest item found so far by the current query, with the largest squared distance that still rounds
+    // to the same distance; kept as fields so that queries do not allocate
+    private int closestCell;
+    private int closestBucket;
+    private int closestDistance;
+    private long maxSquaredDistance;
+
+    /**
+     * EdibleIndex constructor, where no item is initially indexed.
+     * @param width  the number of horizontal cells
+     * @param height the number of vertical cells
+     */
+    public EdibleIndex(int width, int height) {
+        assert width > 0 && height > 0;
+        this.width = width;
+        this.height = height;
+        this.numBucketsX = (width + BUCKET_MASK) >>> BUCKET_SHIFT;
+        this.numBucketsY = (height + BUCKET_MASK) >>> BUCKET_SHIFT;
+        this.buckets = new long[numBucketsX * numBucketsY];
+    }
+
+    /**
+     * Get the number of indexed items.
+     * @return the number of items
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Set the number of items of the game, edible or not, which determines the capacity of the hash map of
+     * all items that ties are broken by.
+     * @param numItems the number of items
+     * @see   HashableLocation#getHashMapCapacity(int)
+     */
+    public void setNumItems(int numItems) {
+        this.itemMapCapacity = HashableLocation.getHashMapCapacity(numItems);
+    }
+
+    /**
+     * Index an item at a specified cell. Does nothing if an item is already indexed there.
+     * @param cell the cell id
+     */
+    public void add(int cell) {
+        int x = cell % width, y = cell / width;
+        int bucket = getBucket(x, y);
+        long bit = getBit(x, y);
+        if ((buckets[bucket] & bit) != 0) return;
+        buckets[bucket] |= bit;
+        size++;
+    }
+
+    /**
+     * Remove the item indexed at a specified cell. Does nothing if no item is indexed there.
+     * @param cell the cell id
+     */
+    public void remove(int cell) {
+        int x = cell % width, y = cell / width;
+        int bucket = getBucket(x, y);
+        long bit = getBit(x, y);
+        if ((buckets[bucket] & bit) == 0) return;
+        buckets[bucket] &= ~bit;
+        size--;
+    }
+
+    /**
+     * Check whether an item is indexed at a specified cell.
+     * @param cell the cell id
+     * @return     true if indexed, false if otherwise
+     */
+    public boolean contains(int cell) {
+        int x = cell % width, y = cell / width;
+        return (buckets[getBucket(x, y)] & getBit(x, y)) != 0;
+    }
+
+    /**
+     * Find the item closest to a specified location.
+     * @param x x-coordinate of the location
+     * @param y y-coordinate of the location
+     * @return  cell id of the closest item, or <code>CellMap.NO_CELL</code> if no item is indexed
+     */
+    public int findClosest(int x, int y) {
+        if (size == 0) return CellMap.NO_CELL;
+        int bucketX = Math.min(Math.max(x >> BUCKET_SHIFT, 0), numBucketsX - 1);
+        int bucketY = Math.min(Math.max(y >> BUCKET_SHIFT, 0), numBucketsY - 1);
+        int maxRing = Math.max(Math.max(bucketX, numBucketsX - 1 - bucketX),
+                               Math.max(bucketY, numBucketsY - 1 - bucketY));
+
+        closestCell = CellMap.NO_CELL;
+        closestDistance = Integer.MAX_VALUE;
+        maxSquaredDistance = Long.MAX_VALUE;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // every cell of a ring is at least this many cells away, horizontally or vertically
+            long ringDistance = Math.max(0, (long) (ring - 1) * BUCKET_SIZE + 1);
+            if (ringDistance * ringDistance > maxSquaredDistance) break;
+
+            // top and bottom rows of the ring, then its left and right columns without the corners
+            for (int bx = bucketX - ring; bx <= bucketX + ring; bx++) {
+                searchBucket(bx, bucketY - ring, x, y);
+                if (ring > 0) searchBucket(bx, bucketY + ring, x, y);
+            }
+            for (int by = bucketY - ring + 1; by < bucketY + ring; by++) {
+                searchBucket(bucketX - ring, by, x, y);
+                searchBucket(bucketX + ring, by, x, y);
+            }
+        }
+        return closestCell;
+    }
+
+    /**
+     * Search a bucket for an item closer to a specified location than the closest one found so far.
+     * Buckets outside the grid, or whose every cell is further than the closest item, are skipped.
+     * @param bucketX x-coordinate of the bucket
+     * @param bucketY y-coordinate of the bucket
+     * @param x       x-coordinate of the location
+     * @param y       y-coordinate of the location
+     */
+    private void searchBucket(int bucketX, int bucketY, int x, int y) {
+        if (bucketX < 0 || bucketY < 0 || bucketX >= numBucketsX || bucketY >= numBucketsY) return;
+        long word = buckets[bucketY * numBucketsX + bucketX];
+        if (word == 0) return;
+
+        // distance from location to the nearest cell of the bucket
+        int minX = bucketX << BUCKET_SHIFT, minY = bucketY << BUCKET_SHIFT;
+        long dx = Math.max(0, Math.max(minX - x, x - (minX + BUCKET_MASK)));
+        long dy = Math.max(0, Math.max(minY - y, y - (minY + BUCKET_MASK)));
+        if (dx * dx + dy * dy > maxSquaredDistance) return;
+
+        while (word != 0) {
+            int bit = Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            int cellX = minX + (bit & BUCKET_MASK);
+            int cellY = minY + (bit >>> BUCKET_SHIFT);
+            long squaredDistance = (long) (cellX - x) * (cellX - x) + (long) (cellY - y) * (cellY - y);
+            int distance = (int) (Math.sqrt(squaredDistance) + 0.5);
+            if (distance > closestDistance) continue;
+            int cell = cellY * width + cellX;
+            int bucket = HashableLocation.getHashMapBucket(cellX, cellY, itemMapCapacity);
+            if (distance < closestDistance || bucket < closestBucket ||
+                    (bucket == closestBucket && cell < closestCell)) {
+                closestCell = cell;
+                closestBucket = bucket;
+                closestDistance = distance;
+                // a distance rounds to d as long as it is below d + 0.5, viz. squared below d^2 + d + 0.25
+                maxSquaredDistance = (long) distance * distance + distance;
+            }
+        }
+    }
+
+    /**
+     * Get the bucket of a specified cell.
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return  index of the bucket
+     */
+    private int getBucket(int x, int y) {
+        assert x >= 0 && y >= 0 && x < width && y < height;
+        return (y >>> BUCKET_SHIFT) * numBucketsX + (x >>> BUCKET_SHIFT);
+    }
+
+    /**
+     * Get the bit of a specified cell within its bucket.
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return  the bit
+     */
+    private static long getBit(int x, int y) {
+        return 1L << (((y & BUCKET_MASK) << BUCKET_SHIFT) | (x & BUCKET_MASK));
+    }
+}
@@ -0,0 +1,129 @@
+package src;
+
+
+/**
+ * EffectScheduler class which schedules timed effects on live actors, such as monsters being frozen or sped
+ * up, in terms of game ticks. It is implemented as a hashed timer wheel: each effect is put to the slot of
+ * the tick it expires at, so that advancing the game by a tick only needs to visit a single slot, regardless
+ * of how many effects are pending. Effects are intrusive nodes which are reused every time they are
+ * scheduled, so scheduling neither allocates nor spawns any thread.
+ * <p>
+ * Since effects may be scheduled from a different thread than the one advancing the game (e.g. when PacMan
+ * is moved by player's key presses), all scheduling is synchronized.
+ * @see Monster
+ * @see ObjectManager
+ */
+public class EffectScheduler {
+    // number of slots of the wheel, must be a power of 2
+    private static final int NUM_SLOTS = 64;
+    private static final int SLOT_MASK = NUM_SLOTS - 1;
+
+    // the wheel, where each slot is the head of a doubly linked list of effects
+    private final TimedEffect[] slots = new TimedEffect[NUM_SLOTS];
+    // number of ticks the game has been advanced by
+    private long currentTick = 0;
+
+    /**
+     * Abstract TimedEffect class representing an effect which expires after some number of ticks. Each
+     * effect can only be pending once; scheduling an already pending effect re-schedules it instead.
+     */
+    public static abstract class TimedEffect {
+        private long expireTick;
+        private boolean isPending = false;
+        private TimedEffect previous;
+        private TimedEffect next;
+
+        /**
+         * Check whether effect is pending, meaning it is scheduled but has yet to expire.
+         * @return true if pending, false if otherwise
+         */
+        public boolean isPending() {
+            return isPending;
+        }
+
+        /**
+         * Abstract method called when the effect expires.
+         */
+        protected abstract void expire();
+    }
+
+    /**
+     * Get the number of ticks the game has been advanced by.
+     * @return the current tick
+     */
+    public synchronized long getCurrentTick() {
+        return currentTick;
+    }
+
+
+    /**
+     * Schedule an effect to expire after a specified number of ticks. If the effect is already pending, its
+     * previous expiry is cancelled, so that the effect lasts for the specified number of ticks from now.
+     * @param effect the effect
+     * @param ticks  number of ticks until the effect expires
+     */
+    public synchronized void schedule(TimedEffect effect, int ticks) {
+        assert effect != null;
+        cancel(effect);
+        if (ticks <= 0) {
+            effect.expire();
+            return;
+        }
+        effect.expireTick = currentTick + ticks;
+        effect.isPending = true;
+
+        // link to head of slot
+        int slot = (int) (effect.expireTick & SLOT_MASK);
+        effect.previous = null;
+        effect.next = slots[slot];
+        if (slots[slot] != null)
+            slots[slot].previous = effect;
+        slots[slot] = effect;
+    }
+
+    /**
+     * Cancel a pending effect so that it never expires. Does nothing if effect is not pending.
+     * @param effect the effect
+     */
+    public synchronized void cancel(TimedEffect effect) {
+        if (! effect.isPending) return;
+        int slot = (int) (effect.expireTick & SLOT_MASK);
+        if (effect.previous != null)
+            effect.previous.next = effect.next;
+        else
+            slots[slot] = effect.next;
+        if (effect.next != null)
+            effect.next.previous = effect.previous;
+        effect.previous = null;
+        effect.next = null;
+        effect.isPending = false;
+    }
+
+    /**
+     * Advance the game by a single tick, expiring all effects that are due. Effects in the same slot which
+     * are due in a later round of the wheel are left pending. Due effects are unlinked before any of them
+     * expires, so an expiring effect may safely re-schedule itself.
+     */
+    public synchronized void advance() {
+        currentTick++;
+        TimedEffect expired = null;
+        TimedEffect effect = slots[(int) (currentTick & SLOT_MASK)];
+        while (effect != null) {
+            TimedEffect next = effect.next;
+            if (effect.expireTick == currentTick) {
+                cancel(effect);
+                effect.next = expired;
+                expired = effect;
+            }
+            effect = next;
+        }
+
+        // expire all due effects
+        while (expired != null) {
+            TimedEffect next = expired.next;
+            expired.next = null;
+            expired.expire();
+            expired = next;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package src;
+import java.util.Arrays;
+
+
+/**
+ * FlowField class representing the distance of every cell of the game grid to a single target cell, which
+ * is PacMan's cell when used by chasing monsters. Unlike the straight-line distance, the distance follows
+ * the walls of the grid: it is the number of moves along the shortest path to the target, computed by a
+ * breadth-first search over walkable cells. Moves are either orthogonal only, or also diagonal; a diagonal
+ * move, like that of an alien, only requires its destination to be walkable.
+ * <p>
+ * The search is only redone when the target moves, so every monster reading the field in between gets
+ * each distance by a single array read.
+ * @see WalkabilityGrid
+ * @see ObjectManager
+ */
+public class FlowField {
+    // distance of any cell from which the target cannot be reached
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    // no target yet
+    private static final int NO_TARGET = -1;
+    // moves, as offsets in x and y; the first 4 are orthogonal
+    private static final int[] MOVE_X = {1, 0, -1, 0, 1, -1, -1, 1};
+    private static final int[] MOVE_Y = {0, 1, 0, -1, 1, 1, -1, -1};
+    private static final int NUM_ORTHOGONAL_MOVES = 4;
+
+    // the walkable cells
+    private final WalkabilityGrid walkabilityGrid;
+    // number of moves to search from each cell
+    private final int numMoves;
+    // distance of every cell to the target, in row-major order
+    private final int[] distances;
+    // queue of the breadth-first search, which never holds more than every cell once
+    private final int[] queue;
+    // cell id of the target
+    private int targetCell = NO_TARGET;
+
+    /**
+     * FlowField constructor. The field is empty until it is updated with a target.
+     * @param walkabilityGrid the walkable cells of the grid
+     * @param isDiagonal      whether diagonal moves are allowed, on top of orthogonal ones
+     * @see                   WalkabilityGrid
+     */
+    public FlowField(WalkabilityGrid walkabilityGrid, boolean isDiagonal) {
+        assert walkabilityGrid != null;
+        this.walkabilityGrid = walkabilityGrid;
+        this.numMoves = isDiagonal ? MOVE_X.length : NUM_ORTHOGONAL_MOVES;
+        int numCells = walkabilityGrid.getWidth() * walkabilityGrid.getHeight();
+        this.distances = new int[numCells];
+        this.queue = new int[numCells];
+    }
+
+    /**
+     * Update the field to a specified target cell. Does nothing if the target has not moved since the last
+     * update, since walls never change throughout the game.
+     * @param x x-coordinate of the target
+     * @param y y-coordinate of the target
+     */
+    public void update(int x, int y) {
+        int width = walkabilityGrid.getWidth();
+        int cell = y * width + x;
+        if (cell == targetCell) return;
+        targetCell = cell;
+        Arrays.fill(distances, UNREACHABLE);
+        if (! walkabilityGrid.isWalkable(x, y)) return;
+
+        // breadth-first search from the target
+        int head = 0, tail = 0;
+        distances[cell] = 0;
+        queue[tail++] = cell;
+        while (head < tail) {
+            int current = queue[head++];
+            int currentX = current % width, currentY = current / width;
+            int distance = distances[current] + 1;
+            for (int move = 0; move < numMoves; move++) {
+                int nextX = currentX + MOVE_X[move], nextY = currentY + MOVE_Y[move];
+                if (! walkabilityGrid.isWalkable(nextX, nextY)) continue;
+                int next = nextY * width + nextX;
+                if (distances[next] != UNREACHABLE) continue;
+                distances[next] = distance;
+                queue[tail++] = next;
+            }
+        }
+    }
+
+    /**
+     * Get the distance of a specified cell to the target.
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return  number of moves to reach the target, or <code>UNREACHABLE</code> if it cannot be reached
+     */
+    public int getDistance(int x, int y) {
+        if (! walkabilityGrid.isInBound(x, y)) return UNREACHABLE;
+        return distances[y * walkabilityGrid.getWidth() + x];
+    }
+}
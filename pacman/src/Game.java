@@ -1,8 +1,14 @@
 package src;
 
+import src.utility.AsyncLogWriter;
+import src.utility.BinaryGameCallback;
+import src.utility.BinaryLogConverter;
+import src.utility.GameCallback;
+import src.utility.PropertiesLoader;
 import ch.aplu.jgamegrid.*;
 import java.awt.*;
-import java.util.Map;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.Properties;
 
 
@@ -32,18 +38,19 @@ public class Game extends GameGrid {
     private final static int SIMULATION_PERIOD = 100;
     private final static int KEY_REPEATED_PERIOD = 150;
     private final static String GAME_TITLE = "[PacMan in the Multiverse]";
-    private final static int DELAY_RUN = 10;
+    private final static String SCORE_TITLE = GAME_TITLE + " Current score: ";
+    private final static int NO_SCORE = -1;
     private final static int DELAY_AFTER_RUN = 120;
 
     // game grid
     public final static int STRETCH_RATE = 2;
     public final static int CELL_SIZE = 20 * STRETCH_RATE;
-    private final static int NUM_HORIZONTAL_CELLS = 20;
-    private final static int NUM_VERTICAL_CELLS = 11;
     private final PacManGameGrid grid;
 
     // object manager
     private final ObjectManager manager;
+    // score shown in the title, so that the title is only set again once the score has changed
+    private int shownScore = NO_SCORE;
 
     /**
      * Game class constructor.
@@ -51,12 +58,104 @@ public class Game extends GameGrid {
      * @see              Properties
      */
     public Game(Properties properties) {
+        this(properties, loadGrid(properties));
+    }
+
+    /**
+     * Game class constructor with an already loaded grid, which the game window is sized to.
+     * @param properties properties object read from properties file for instantiating actors and items
+     * @param grid       the game's grid
+     * @see              Properties
+     * @see              PacManGameGrid
+     */
+    private Game(Properties properties, PacManGameGrid grid) {
 
         // Setup game
-        super(NUM_HORIZONTAL_CELLS, NUM_VERTICAL_CELLS, CELL_SIZE, false);
-        this.grid = new PacManGameGrid(NUM_HORIZONTAL_CELLS, NUM_VERTICAL_CELLS);
-        this.manager = new ObjectManager(this);
+        super(grid.getNumHorizontalCells(), grid.getNumVerticalCells(), CELL_SIZE, false);
+        this.grid = grid;
+        this.manager = new ObjectManager(this, createGameCallback(properties, PropertiesLoader.LINE_DURABILITY));
+        instantiateActors(properties);
+    }
+
+    /**
+     * Game class constructor for a game that is not backed by a game window. The game grid is only used
+     * to keep track of its actors, and nothing is ever displayed.
+     * @param properties   properties object read from properties file for instantiating actors and items
+     * @param gameCallback the game callback which the game's activities are logged to
+     * @see                HeadlessGame
+     */
+    protected Game(Properties properties, GameCallback gameCallback) {
+        super();
+        this.grid = loadGrid(properties);
+        // the game grid keeps its default size without a window, so it is sized to the maze by hand; this
+        // way, an actor is only near the game grid's border where it would be near the game window's
+        nbHorzCells = grid.getNumHorizontalCells();
+        nbVertCells = grid.getNumVerticalCells();
+        this.manager = new ObjectManager(this, gameCallback);
+        instantiateActors(properties);
+    }
+
+    /**
+     * Load the game's grid, which is either the maze file specified in the properties, or the default maze
+     * if there is none. Should the maze file fail to load, the default maze is used instead.
+     * @param properties properties object read from properties file
+     * @return           the game's grid
+     * @see              PacManGameGrid
+     */
+    private static PacManGameGrid loadGrid(Properties properties) {
+        String mazePath = properties.getProperty(PropertiesLoader.MAZE_PROPERTY);
+        if (mazePath == null || mazePath.isEmpty())
+            return new PacManGameGrid();
+        try {
+            return PacManGameGrid.loadMaze(mazePath);
+        }
+        catch (IOException ex) {
+            ex.printStackTrace();
+        }
+        return new PacManGameGrid();
+    }
+
+    /**
+     * Create the game callback logging to the log file, which either writes every line synchronously, or
+     * writes asynchronously and flushes according to the log durability specified in the properties. If the
+     * properties specify the binary log format, the game is logged to a binary event log instead, which is
+     * converted to the textual log by <code>BinaryLogConverter</code>.
+     * @param properties         properties object read from properties file
+     * @param defaultDurability  log durability if none is specified
+     * @return                   the game callback
+     * @see                      GameCallback
+     * @see                      AsyncLogWriter
+     * @see                      BinaryGameCallback
+     */
+    protected static GameCallback createGameCallback(Properties properties, String defaultDurability) {
+        if (PropertiesLoader.BINARY_LOG_FORMAT.equals(properties.getProperty(PropertiesLoader.LOG_FORMAT_PROPERTY))) {
+            try {
+                return new BinaryGameCallback(new FileOutputStream(BinaryLogConverter.DEFAULT_BINARY_LOG_PATH));
+            }
+            catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+        String durability = properties.getProperty(PropertiesLoader.LOG_DURABILITY_PROPERTY, defaultDurability);
+        String flushInterval = properties.getProperty(PropertiesLoader.LOG_FLUSH_INTERVAL_PROPERTY);
+        long flushIntervalMillis = flushInterval == null ?
+                AsyncLogWriter.DEFAULT_FLUSH_INTERVAL : Long.parseLong(flushInterval);
+        return switch (durability) {
+            case PropertiesLoader.TICK_DURABILITY ->
+                    new GameCallback(AsyncLogWriter.DurabilityPolicy.TICK_END, flushIntervalMillis);
+            case PropertiesLoader.GAME_DURABILITY ->
+                    new GameCallback(AsyncLogWriter.DurabilityPolicy.GAME_END, flushIntervalMillis);
+            case PropertiesLoader.INTERVAL_DURABILITY ->
+                    new GameCallback(AsyncLogWriter.DurabilityPolicy.INTERVAL, flushIntervalMillis);
+            default -> new GameCallback();
+        };
+    }
 
+    /**
+     * Parse the properties and instantiate all items and actors of the game. Called in Game constructor.
+     * @param properties properties object read from properties file for instantiating actors and items
+     */
+    private void instantiateActors(Properties properties) {
         // parse properties and instantiate objects
         manager.parseInanimateActor(properties);
         manager.instantiatePacActor(properties);
@@ -66,6 +165,19 @@ public class Game extends GameGrid {
         manager.instantiateMonsters(properties);
     }
 
+    /**
+     * Convert a duration in seconds to the number of game ticks it spans. A tick is a single act of every
+     * live actor, which happens once every <code>LiveActor.SLOW_DOWN</code> simulation periods. The
+     * duration is rounded up, so that an effect never lasts shorter than it is supposed to.
+     * @param seconds the duration in seconds
+     * @return        the number of ticks
+     * @see           LiveActor
+     */
+    public static int secondsToTicks(int seconds) {
+        int tickPeriod = SIMULATION_PERIOD * LiveActor.SLOW_DOWN;
+        return (seconds * Monster.SECOND_TO_MILLISECONDS + tickPeriod - 1) / tickPeriod;
+    }
+
     /**
      * Get the game grid.
      * @return the game grid
@@ -76,8 +188,18 @@ public class Game extends GameGrid {
     }
 
     /**
-     * Run the game. Upon running, all actors and items will be put to the game, and it will continually
-     * check for a winning / losing condition until either one is met.
+     * Get the object manager, which has access to all items and actors of the game.
+     * @return the object manager
+     * @see    ObjectManager
+     */
+    protected ObjectManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Run the game. Upon running, all actors and items will be put to the game, after which it waits for
+     * the game to end: a winning / losing event is raised the moment PacMan eats the last pill or gold piece
+     * or collides with a monster, and the game ends at the end of that tick.
      */
     public void run() {
         // set up game window
@@ -86,6 +208,19 @@ public class Game extends GameGrid {
         GGBackground bg = getBg();
         drawGrid(bg);
 
+        // advance timed effects after every tick, viz. before each acting cycle except the first one, and
+        // end the game after the tick it is over on; the score in the title is updated at most once per cycle
+        addActListener(() -> {
+            if (getNbCycles() > LiveActor.SLOW_DOWN && getNbCycles() % LiveActor.SLOW_DOWN == 0) {
+                manager.getEffectScheduler().advance();
+                manager.getGameCallback().endOfTick();
+                if (manager.isGameOver() && ! manager.hasGameEnded())
+                    manager.endGame();
+            }
+            if (! manager.isGameOver())
+                updateScoreTitle();
+        });
+
         // Setup Random seeds
         addKeyRepeatListener(manager.getPacActor());
         setKeyRepeatPeriod(KEY_REPEATED_PERIOD);
@@ -93,26 +228,27 @@ public class Game extends GameGrid {
         putPacActor();
 
         // Run the game
+        manager.checkGameOver();
         doRun();
         show();
+        putItems(bg);
 
-        // check win / lose conditions
+        // wait for win / lose events
         PacActor pacActor = manager.getPacActor();
-        boolean hasPacmanEatAllPills, hasPacmanBeenHit;
-        putItems(bg);
-        do {
-            hasPacmanBeenHit = pacActor.collideMonster();
-            hasPacmanEatAllPills = manager.getNumPillsAndGold() <= 0;
-            delay(DELAY_RUN);
-        } while (! hasPacmanBeenHit && ! hasPacmanEatAllPills);
+        try {
+            manager.awaitEndOfGame();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
         delay(DELAY_AFTER_RUN);
 
         // upon winning / losing
         Location loc = pacActor.getLocation();
-        manager.setMonstersStopMoving();
         pacActor.removeSelf();
         String title;
-        if (hasPacmanBeenHit) {
+        if (! manager.hasPacmanWon()) {
             bg.setPaintColor(COLOR_LOSE);
             title = LOSE_MESSAGE;
             addActor(new Actor(PacActor.KILLED_SPRITE), loc);
@@ -128,46 +264,77 @@ public class Game extends GameGrid {
 
 
     /**
-     * Draw the game's grid. The grid includes empty space and walls.
+     * Draw the game's grid. The grid includes empty space and walls. Every cell is painted in the wall or
+     * space color, so the cells together cover the whole background and it need not be cleared beforehand.
      * @param bg background object for grid
      * @see      GGBackground
      */
-    private void drawGrid(GGBackground bg) {
+    protected void drawGrid(GGBackground bg) {
         // set the background
-        bg.clear(COLOR_WALL);
         bg.setPaintColor(COLOR_BACKGROUND);
 
-        // draw the maze (its border and items)
-        for (int y = 0; y < NUM_VERTICAL_CELLS; y++) {
-            for (int x = 0; x < NUM_HORIZONTAL_CELLS; x++) {
-                bg.setPaintColor(COLOR_BACKGROUND);
-                Location location = new Location(x, y);
-                // space
-                if (grid.getCell(location) != InanimateActor.BlockType.ERROR)
-                    bg.fillCell(location, COLOR_SPACE);
-                // wall -> added to wall map in manager
-                if (grid.getCell(location) == InanimateActor.BlockType.WALL) {
-                    HashableLocation.putLocationHash(manager.getWalls(), location, 1);
+        // error cells are neither space nor walls, and are only painted in the wall color; they are painted
+        // first, so that the cells around them still cover the grid lines they share
+        Location location = new Location();
+        for (location.y = 0; location.y < grid.getNumVerticalCells(); location.y++)
+            for (location.x = 0; location.x < grid.getNumHorizontalCells(); location.x++)
+                if (grid.getCell(location.x, location.y) == InanimateActor.BlockType.ERROR)
                     bg.fillCell(location, COLOR_WALL);
-                }
+
+        // draw the maze (its border and items); a filled cell also covers the grid lines to its right and
+        // below, so walls are painted in the same pass, after the cells preceding them
+        for (location.y = 0; location.y < grid.getNumVerticalCells(); location.y++)
+            for (location.x = 0; location.x < grid.getNumHorizontalCells(); location.x++) {
+                InanimateActor.BlockType cell = grid.getCell(location.x, location.y);
+                if (cell == InanimateActor.BlockType.WALL)
+                    bg.fillCell(location, COLOR_WALL);
+                else if (cell != InanimateActor.BlockType.ERROR)
+                    bg.fillCell(location, COLOR_SPACE);
             }
-        }
+        buildWalls();
+    }
+
+    /**
+     * Show PacMan's score in the title, unless it is already shown. The title is thus only set again once
+     * the score has changed, rather than after every move of PacMan.
+     */
+    private void updateScoreTitle() {
+        int score = manager.getPacActor().getScore();
+        if (score == shownScore)
+            return;
+        shownScore = score;
+        setTitle(SCORE_TITLE + score);
+    }
+
+    /**
+     * Add every wall of the grid to the walkability grid in manager, so that live actors cannot walk
+     * through them, then compile the maze graph of the moves they can make.
+     * @see WalkabilityGrid
+     * @see MazeGraph
+     */
+    protected void buildWalls() {
+        for (int y = 0; y < grid.getNumVerticalCells(); y++)
+            for (int x = 0; x < grid.getNumHorizontalCells(); x++)
+                if (grid.getCell(x, y) == InanimateActor.BlockType.WALL)
+                    manager.getWalkabilityGrid().setWall(x, y);
+        manager.compileMazeGraph();
     }
 
 
     /**
      * Putting all items to game. Items once put to the game will exist within the game as well as the
-     * grid, and it will also be visualized to the background.
+     * grid, and it will also be visualized to the background. Pills are only drawn onto the background.
      * @param background the background
      * @see              GGBackground
      * @see              Item
      */
     public void putItems(GGBackground background) {
-        for (Map.Entry<HashableLocation, Item> entry : manager.getItems().entrySet()) {
-            Location location = entry.getKey().location();
-            Item item = entry.getValue();
-            item.putActor(background, this, location);
-        }
+        CellSet pills = manager.getPills();
+        for (int cell = pills.nextCell(0); cell != CellMap.NO_CELL; cell = pills.nextCell(cell + 1))
+            manager.getPill().putActor(background, this, grid.getCellLocation(cell));
+        CellMap<Item> items = manager.getItems();
+        for (int cell = items.nextCell(0); cell != CellMap.NO_CELL; cell = items.nextCell(cell + 1))
+            items.get(cell).putActor(background, this, grid.getCellLocation(cell));
     }
 
     /**
@@ -180,6 +347,8 @@ public class Game extends GameGrid {
             Monster monster = manager.getMonsters().get(i);
             monster.putActor(this);
         }
+        if (manager.getMonsterSwarm() != null)
+            manager.getMonsterSwarm().putActors(this);
     }
 
     /**
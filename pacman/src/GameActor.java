@@ -5,8 +5,9 @@ import ch.aplu.jgamegrid.Actor;
 /**
  * Game Actor abstract class extended from Actor class. It represents any actors in the game, live
  * or inanimate. As long as it is an element within the game's grid, it is considered, or can be
- * extended.
+ * extended. Sprite file names are resolved once per kind of actor, by the sprite cache.
  * @see GameActor
+ * @see SpriteCache
  */
 public abstract class GameActor extends Actor {
     // object's name
@@ -18,7 +19,7 @@ public abstract class GameActor extends Actor {
      * @param src the directory for sprite image of the inanimate object
      */
     public GameActor(String src) {
-        super(src);
+        super(false, SpriteCache.getSpriteFiles(src, 1));
     }
 
     /**
@@ -29,7 +30,7 @@ public abstract class GameActor extends Actor {
      * @param numSprites  number of sprite images
      */
     public GameActor(boolean isRotatable, String directory, int numSprites) {
-        super(isRotatable, directory, numSprites);
+        super(isRotatable, SpriteCache.getSpriteFiles(directory, numSprites));
     }
 
     /**
@@ -57,6 +58,6 @@ public abstract class GameActor extends Actor {
      * @return      boolean value indicating whether the 2 actors have collided or not
      */
     public boolean actorCollide(GameActor other) {
-        return this.getLocation().equals(other.getLocation());
+        return this.getX() == other.getX() && this.getY() == other.getY();
     }
 }
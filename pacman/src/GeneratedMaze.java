@@ -0,0 +1,134 @@
+package src;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+/**
+ * GeneratedMaze class representing a maze made of the stock maze repeated across and down, used by the
+ * benchmarks to measure the game on mazes of any size. The stock maze is repeated without its border, so
+ * that adjacent copies are connected, and the whole maze is surrounded by a single border instead.
+ * @see PacManGameGrid
+ */
+public class GeneratedMaze {
+    // separator of the number of copies across and down in a maze size (e.g. 10x10)
+    public static final String SIZE_SEPARATOR = "x";
+    // width of the stock maze's border, and size of a copy of the stock maze without its border
+    private static final int BORDER = 1;
+    public static final int TILE_WIDTH = PacManGameGrid.DEFAULT_NUM_HORIZONTAL_CELLS - 2 * BORDER;
+    public static final int TILE_HEIGHT = PacManGameGrid.DEFAULT_NUM_VERTICAL_CELLS - 2 * BORDER;
+
+    // number of copies of the stock maze across and down
+    private final int tilesAcross;
+    private final int tilesDown;
+
+    /**
+     * GeneratedMaze constructor.
+     * @param tilesAcross number of copies of the stock maze across
+     * @param tilesDown   number of copies of the stock maze down
+     */
+    public GeneratedMaze(int tilesAcross, int tilesDown) {
+        assert tilesAcross > 0 && tilesDown > 0;
+        this.tilesAcross = tilesAcross;
+        this.tilesDown = tilesDown;
+    }
+
+    /**
+     * Parse a maze size into a generated maze, where a single number is a square maze.
+     * @param size the number of copies of the stock maze across and down (e.g. 10x10)
+     * @return     the generated maze
+     */
+    public static GeneratedMaze parse(String size) {
+        String[] tiles = size.split(SIZE_SEPARATOR);
+        return new GeneratedMaze(Integer.parseInt(tiles[0]), Integer.parseInt(tiles[tiles.length - 1]));
+    }
+
+    /**
+     * Get the number of copies of the stock maze across.
+     * @return the number of copies
+     */
+    public int getTilesAcross() {
+        return tilesAcross;
+    }
+
+    /**
+     * Get the number of copies of the stock maze down.
+     * @return the number of copies
+     */
+    public int getTilesDown() {
+        return tilesDown;
+    }
+
+    /**
+     * Get the width of the maze.
+     * @return the width, in cells
+     */
+    public int getWidth() {
+        return tilesAcross * TILE_WIDTH + 2 * BORDER;
+    }
+
+    /**
+     * Get the height of the maze.
+     * @return the height, in cells
+     */
+    public int getHeight() {
+        return tilesDown * TILE_HEIGHT + 2 * BORDER;
+    }
+
+    /**
+     * Get the x-coordinate of a cell of a copy of the stock maze, within the whole maze.
+     * @param tileX x-index of the copy
+     * @param x     x-coordinate of the cell within the stock maze
+     * @return      the x-coordinate within the whole maze
+     */
+    public static int getCellX(int tileX, int x) {
+        return tileX * TILE_WIDTH + x;
+    }
+
+    /**
+     * Get the y-coordinate of a cell of a copy of the stock maze, within the whole maze.
+     * @param tileY y-index of the copy
+     * @param y     y-coordinate of the cell within the stock maze
+     * @return      the y-coordinate within the whole maze
+     */
+    public static int getCellY(int tileY, int y) {
+        return tileY * TILE_HEIGHT + y;
+    }
+
+    /**
+     * Write the maze to a temporary maze file, which can be loaded by <code>PacManGameGrid.loadMaze</code>.
+     * @return path of the maze file
+     * @throws IOException if the file cannot be written
+     */
+    public Path write() throws IOException {
+        PacManGameGrid stockGrid = new PacManGameGrid();
+        int width = getWidth();
+        int height = getHeight();
+        Path mazePath = Files.createTempFile("maze", ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(mazePath)) {
+            char[] row = new char[width];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    boolean isBorder = x < BORDER || x >= width - BORDER || y < BORDER || y >= height - BORDER;
+                    row[x] = isBorder ? InanimateActor.BlockType.WALL.BLOCK_CHAR :
+                            stockGrid.getCell(BORDER + (x - BORDER) % TILE_WIDTH,
+                                              BORDER + (y - BORDER) % TILE_HEIGHT).BLOCK_CHAR;
+                }
+                writer.write(row);
+                writer.newLine();
+            }
+        }
+        return mazePath;
+    }
+
+    /**
+     * Describe the maze by its size.
+     * @return the description
+     */
+    @Override
+    public String toString() {
+        return String.format("generated maze of %dx%d stock mazes (%dx%d cells)", tilesAcross, tilesDown,
+                getWidth(), getHeight());
+    }
+}
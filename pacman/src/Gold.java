@@ -46,21 +46,22 @@ public class Gold extends Item {
     @Override
     protected void signalManager(ObjectManager manager) {
         // assert that player is in fact at the location of item
-        if (matchPacmanLocation(manager))
+        if (matchPacmanLocation(manager)) {
             // trigger signal
-            for (Monster monster : manager.getMonsters())
+            // indexed, so that eating does not allocate an iterator
+            for (int i=0; i<manager.getMonsters().size(); i++)
             {
+                Monster monster = manager.getMonsters().get(i);
                 if (manager.isMultiverse())
                 {
                     monster.speedUp(Monster.AGGRAVATE_TIME);
                     // monster is Orion, then we want Orion to know that this gold piece is already eaten
                     if (monster instanceof Orion orion)
-                        HashableLocation.putLocationHash(
-                                orion.getGoldPacmanAte(),
-                                this.getLocation(),
-                                true
-                        );
+                        orion.setGoldPacmanAte(manager.getGame().getGrid().getCellId(getX(), getY()));
                 }
             }
+            if (manager.isMultiverse() && manager.getMonsterSwarm() != null)
+                manager.getMonsterSwarm().speedUp(Monster.AGGRAVATE_TIME);
+        }
     }
 }
\ No newline at end of file
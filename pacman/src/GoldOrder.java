@@ -0,0 +1,155 @@
+package src;
+import java.util.Arrays;
+
+
+/**
+ * GoldOrder class holding the gold pieces Orion walks between, in the order Orion used to iterate over its
+ * hash map of gold pieces keyed by their locations, which it filled by iterating over the hash map of all
+ * items. Gold pieces are identified by their index in this order, and sets of them are bitsets over these
+ * indices. Picking an unvisited gold piece at random follows the order of a new hash map of the unvisited
+ * gold pieces, so that every pick is the same as Orion's. Orion actors and the monster swarm both pick
+ * through this class; it never changes once made, so it can be shared by monsters deciding in parallel.
+ * @see Orion
+ * @see MonsterSwarm
+ */
+public final class GoldOrder {
+    // index indicating no gold piece
+    public static final int NO_GOLD = -1;
+
+    // cell id of each gold piece, and its bucket in the hash map of gold pieces, whose capacity is kept
+    private final int[] goldCells;
+    private final int[] goldBuckets;
+    private final int mapCapacity;
+    // cell ids of gold pieces in ascending order, with the index of the gold piece in each cell
+    private final int[] sortedGoldCells;
+    private final int[] sortedGolds;
+
+    /**
+     * GoldOrder constructor, ordering every gold piece among the items of the game.
+     * @param manager stores locations of all game objects, whose items must all be instantiated
+     */
+    public GoldOrder(ObjectManager manager) {
+        assert manager != null;
+        CellMap<Item> items = manager.getItems();
+        PacManGameGrid grid = manager.getGame().getGrid();
+        int numGolds = 0;
+        int[] cells = new int[items.size()];
+        for (int cell = items.nextCell(0); cell != CellMap.NO_CELL; cell = items.nextCell(cell + 1))
+            if (items.get(cell) instanceof Gold)
+                cells[numGolds++] = cell;
+        this.sortedGoldCells = Arrays.copyOf(cells, numGolds);
+
+        // order by bucket in the gold map, then by bucket in the item map, which was filled in row-major order
+        int numItems = items.size() + manager.getPills().size();
+        int itemMapCapacity = HashableLocation.getHashMapCapacity(numItems);
+        this.mapCapacity = HashableLocation.getHashMapCapacity(numGolds);
+        long[] keys = new long[numGolds];
+        for (int i = 0; i < numGolds; i++) {
+            int x = grid.getCellX(sortedGoldCells[i]), y = grid.getCellY(sortedGoldCells[i]);
+            long goldBucket = HashableLocation.getHashMapBucket(x, y, mapCapacity);
+            long itemBucket = HashableLocation.getHashMapBucket(x, y, itemMapCapacity);
+            keys[i] = (goldBucket << 48) | (itemBucket << 32) | i;
+        }
+        Arrays.sort(keys);
+        this.goldCells = new int[numGolds];
+        this.goldBuckets = new int[numGolds];
+        this.sortedGolds = new int[numGolds];
+        for (int gold = 0; gold < numGolds; gold++) {
+            int sortedIndex = (int) keys[gold];
+            this.goldCells[gold] = sortedGoldCells[sortedIndex];
+            this.goldBuckets[gold] = (int) (keys[gold] >>> 48);
+            this.sortedGolds[sortedIndex] = gold;
+        }
+    }
+
+    /**
+     * Get the number of gold pieces.
+     * @return the number of gold pieces
+     */
+    public int size() {
+        return goldCells.length;
+    }
+
+    /**
+     * Get the capacity of the hash map of all gold pieces, which is the number of bucket counts a pick needs.
+     * @return the capacity
+     */
+    public int getMapCapacity() {
+        return mapCapacity;
+    }
+
+    /**
+     * Get the cell of a gold piece.
+     * @param gold index of the gold piece
+     * @return     the cell id
+     */
+    public int getCell(int gold) {
+        return goldCells[gold];
+    }
+
+    /**
+     * Get the gold piece at a specified cell.
+     * @param cellId the cell id
+     * @return       index of the gold piece, or <code>NO_GOLD</code> if there is none
+     */
+    public int getGold(int cellId) {
+        int sortedIndex = Arrays.binarySearch(sortedGoldCells, cellId);
+        return sortedIndex >= 0 ? sortedGolds[sortedIndex] : NO_GOLD;
+    }
+
+    /**
+     * Pick an unvisited gold piece by its rank in a new hash map of the unvisited gold pieces. The map is
+     * sized for all unvisited gold pieces, even if one of them is left out. When it is as large as the map of
+     * all gold pieces, its order is theirs, and the pick skips over whole words of visited gold pieces.
+     * @param visited      the array holding the bitset of visited gold pieces
+     * @param offset       the bitset's first word in the array
+     * @param numUnvisited number of unvisited gold pieces, including the one left out
+     * @param rank         rank of the gold piece, among the unvisited gold pieces but the one left out
+     * @param excluded     index of an unvisited gold piece to leave out, or <code>NO_GOLD</code>
+     * @param bucketCounts counts to fill, one per bucket of the hash map of all gold pieces
+     * @return             index of the gold piece
+     */
+    public int selectUnvisited(long[] visited, int offset, int numUnvisited, int rank, int excluded,
+                               int[] bucketCounts) {
+        int capacity = HashableLocation.getHashMapCapacity(numUnvisited);
+        if (capacity < mapCapacity)
+            return selectInSmallerMap(visited, offset, rank, capacity, excluded, bucketCounts);
+        int gold = Bitsets.selectClearBit(visited, offset, goldCells.length, rank);
+        if (excluded != NO_GOLD && gold >= excluded)
+            gold = Bitsets.nextClearBit(visited, offset, goldCells.length, gold + 1);
+        return gold;
+    }
+
+    /**
+     * Pick an unvisited gold piece by its rank in a hash map of unvisited gold pieces smaller than the map of
+     * all gold pieces. Its buckets are the low bits of the buckets of the larger map, and gold pieces of the
+     * same bucket are in the same order as in the larger map.
+     * @param visited      the array holding the bitset of visited gold pieces
+     * @param offset       the bitset's first word in the array
+     * @param rank         rank of the gold piece
+     * @param capacity     capacity of the smaller map
+     * @param excluded     index of the gold piece to leave out, or <code>NO_GOLD</code>
+     * @param bucketCounts counts to fill, one per bucket of the smaller map
+     * @return             index of the gold piece
+     */
+    private int selectInSmallerMap(long[] visited, int offset, int rank, int capacity, int excluded,
+                                   int[] bucketCounts) {
+        int mask = capacity - 1;
+        int numGolds = goldCells.length;
+        Arrays.fill(bucketCounts, 0, capacity, 0);
+        for (int gold = Bitsets.nextClearBit(visited, offset, numGolds, 0); gold != Bitsets.NO_BIT;
+             gold = Bitsets.nextClearBit(visited, offset, numGolds, gold + 1))
+            if (gold != excluded)
+                bucketCounts[goldBuckets[gold] & mask]++;
+
+        // find the bucket of the gold piece, then the gold piece within it
+        int bucket = 0;
+        while (rank >= bucketCounts[bucket])
+            rank -= bucketCounts[bucket++];
+        for (int gold = Bitsets.nextClearBit(visited, offset, numGolds, 0); gold != Bitsets.NO_BIT;
+             gold = Bitsets.nextClearBit(visited, offset, numGolds, gold + 1))
+            if (gold != excluded && (goldBuckets[gold] & mask) == bucket && rank-- == 0)
+                return gold;
+        return NO_GOLD;
+    }
+}
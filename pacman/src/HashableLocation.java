@@ -11,6 +11,10 @@ import java.util.HashMap;
  * @see Location
  */
 public record HashableLocation(Location location) {
+    // initial capacity and load factor of a hash map created with the default constructor
+    private static final int HASH_MAP_CAPACITY = 16;
+    private static final float HASH_MAP_LOAD_FACTOR = 0.75f;
+
     // properties
     public int getX() {
         return location.getX();
@@ -77,4 +81,35 @@ public record HashableLocation(Location location) {
         HashableLocation hashLocation = new HashableLocation(location);
         return map.containsKey(hashLocation);
     }
+
+
+    /**
+     * Get the capacity of a hash map created with the default constructor, once a specified number of
+     * entries has been put to it. Removing entries never shrinks a hash map, so this is its capacity for the
+     * rest of its lifetime if no more entries are put.
+     * @param numEntries number of entries put to the hash map
+     * @return           the capacity
+     */
+    public static int getHashMapCapacity(int numEntries) {
+        int capacity = HASH_MAP_CAPACITY;
+        while (numEntries > (int) (capacity * HASH_MAP_LOAD_FACTOR))
+            capacity <<= 1;
+        return capacity;
+    }
+
+    /**
+     * Get the bucket of a location in a hash map of a specified capacity, keyed by HashableLocation. A hash
+     * map iterates over its entries in order of their buckets, and over entries of the same bucket in order
+     * of being put. This lets code which no longer keeps such a map still visit locations in the same order.
+     * @param x        x-coordinate of the location
+     * @param y        y-coordinate of the location
+     * @param capacity capacity of the hash map
+     * @return         the bucket
+     * @see            #getHashMapCapacity(int)
+     */
+    public static int getHashMapBucket(int x, int y, int capacity) {
+        // same as Arrays.hashCode of the array location, spread as by the hash map
+        int hash = 31 * (31 + x) + y;
+        return (hash ^ (hash >>> 16)) & (capacity - 1);
+    }
 }
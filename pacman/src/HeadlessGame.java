@@ -0,0 +1,221 @@
+package src;
+import src.utility.GameCallback;
+import src.utility.PropertiesLoader;
+import ch.aplu.jgamegrid.*;
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * HeadlessGame class extended from Game class. It represents a game that runs without a game window:
+ * rather than being paced by the game grid's simulation thread, it steps all live actors itself, one tick
+ * after another, as fast as possible. Since it runs the exact same logic for all items and actors as the
+ * windowed game, it also writes the same log, making it suitable for regression and tuning runs.
+ * <p>
+ * Monsters may decide their moves in parallel, with the number of threads given by the properties. Each
+ * tick then has 2 phases for monsters: all of them decide their moves at once, after which the moves are
+ * made one by one in the usual order. A monster's decision never depends on other monsters, so the game
+ * and its log are the same for any number of threads.
+ * <p>
+ * Sprites are never loaded by a headless game, so it should be run with the system property
+ * <code>java.awt.headless</code> set to true.
+ * @see Game
+ */
+public class HeadlessGame extends Game {
+    // maximum number of ticks before giving up, since PacMan in player mode never moves
+    public final static int DEFAULT_MAX_TICKS = 10000;
+
+    /**
+     * Outcome enumeration of a headless game.
+     * <ul>
+     *     <li>WIN     - PacMan has eaten all pills and gold pieces
+     *     <li>LOSE    - PacMan has collided with a monster
+     *     <li>TIMEOUT - neither has happened within the maximum number of ticks
+     * </ul>
+     */
+    public enum Outcome {
+        WIN,
+        LOSE,
+        TIMEOUT
+    }
+
+    // game running properties
+    private final int maxTicks;
+    // pool monsters decide their moves in, or null to decide them sequentially
+    private final ForkJoinPool decisionPool;
+    private int numTicks = 0;
+    private Outcome outcome = null;
+
+    /**
+     * HeadlessGame constructor, which logs the game to the default log file. Unless the properties specify
+     * otherwise, the log is written asynchronously and flushed at the end of every tick.
+     * @param properties properties object read from properties file for instantiating actors and items
+     * @see              Properties
+     */
+    public HeadlessGame(Properties properties) {
+        this(properties, createGameCallback(properties, PropertiesLoader.TICK_DURABILITY), DEFAULT_MAX_TICKS);
+    }
+
+    /**
+     * HeadlessGame constructor.
+     * @param properties   properties object read from properties file for instantiating actors and items
+     * @param gameCallback the game callback which the game's activities are logged to
+     * @param maxTicks     maximum number of ticks the game can run for
+     * @see                Properties
+     * @see                GameCallback
+     */
+    public HeadlessGame(Properties properties, GameCallback gameCallback, int maxTicks) {
+        super(properties, gameCallback);
+        assert maxTicks > 0;
+        this.maxTicks = maxTicks;
+        int numThreads = Integer.parseInt(properties.getProperty(PropertiesLoader.THREADS_PROPERTY, "1"));
+        this.decisionPool = numThreads > 1 ? new ForkJoinPool(numThreads) : null;
+        // the game is stepped manually, so the game grid's own simulation thread is not needed
+        stopGameThread();
+    }
+
+    /**
+     * Get the outcome of the game.
+     * @return the outcome, or null if the game has not been run yet
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Get the number of ticks the game has run for.
+     * @return the number of ticks
+     */
+    public int getNumTicks() {
+        return numTicks;
+    }
+
+    /**
+     * Get PacMan's score, which is final once the game has been run.
+     * @return the score
+     */
+    public int getScore() {
+        return getManager().getPacActor().getScore();
+    }
+
+
+    /**
+     * Run the game. All actors and items will be put to the game, then the game is stepped tick by tick
+     * until a winning / losing event has been raised, or the maximum number of ticks is reached.
+     */
+    @Override
+    public void run() {
+        setUp();
+
+        // run the game
+        getManager().checkGameOver();
+        while (outcome == null) {
+            if (numTicks >= maxTicks) {
+                outcome = Outcome.TIMEOUT;
+                break;
+            }
+            tick();
+
+            // end the game after the tick a win / lose event has been raised on
+            if (getManager().isGameOver())
+                outcome = getManager().hasPacmanWon() ? Outcome.WIN : Outcome.LOSE;
+        }
+
+        // upon winning / losing
+        if (getManager().isGameOver())
+            getManager().endGame();
+        else
+            getManager().setMonstersStopMoving();
+        getManager().getPacActor().removeSelf();
+        if (decisionPool != null)
+            decisionPool.shutdown();
+        if (outcome != Outcome.TIMEOUT)
+            getManager().getGameCallback().endOfGame(outcome == Outcome.WIN ? WIN_MESSAGE : LOSE_MESSAGE);
+        getManager().getGameCallback().sync();
+    }
+
+    /**
+     * Set up the game, in the same order as the windowed game: the grid is drawn, then all monsters,
+     * PacMan and items are put to the game. Only done once, before the game is stepped.
+     */
+    protected void setUp() {
+        GGBackground bg = getBg();
+        drawGrid(bg);
+        putMonsters();
+        putPacActor();
+        putItems(bg);
+    }
+
+    /**
+     * Step the game by a single tick, where every live actor acts once. Actors act in the same order as
+     * the game grid makes them: PacMan was put to the game last, so it acts first, followed by the monsters
+     * in reverse order of being put to the game. Since monsters are grouped by their type, this matches the
+     * game grid acting on each class in reverse order as well. Timed effects are advanced afterwards.
+     */
+    private void tick() {
+        getManager().getPacActor().act();
+        actMonsters();
+        if (getManager().getMonsterSwarm() != null)
+            getManager().getMonsterSwarm().act(decisionPool);
+        getManager().getEffectScheduler().advance();
+        getManager().getGameCallback().endOfTick();
+        numTicks++;
+    }
+
+    /**
+     * Let every monster act once, in reverse order of being put to the game, like the game grid does. With
+     * a decision pool, all monsters first decide their moves in parallel, then make them in that order.
+     * @see Monster
+     */
+    private void actMonsters() {
+        ArrayList<Monster> monsters = getManager().getMonsters();
+        if (decisionPool == null) {
+            for (int i = monsters.size() - 1; i >= 0; i--)
+                monsters.get(i).act();
+            return;
+        }
+        getManager().updateChaseFields();
+        decisionPool.invoke(new DecisionTask((from, to) -> {
+            for (int i = from; i < to; i++)
+                monsters.get(i).decideMove();
+        }, 0, monsters.size()));
+        for (int i = monsters.size() - 1; i >= 0; i--)
+            monsters.get(i).commitMove();
+    }
+
+
+    /**
+     * Overridden method drawing the game's grid. Since there is no game window, nothing is drawn, and the
+     * walls are only added to the walkability grid; this keeps setting up large mazes cheap.
+     * @param bg background object for grid, which is left untouched
+     * @see      GGBackground
+     */
+    @Override
+    protected void drawGrid(GGBackground bg) {
+        buildWalls();
+    }
+
+    /**
+     * Overridden method adding an actor to the game grid. Since there is no game window, the game grid is
+     * never refreshed upon adding an actor.
+     * @param actor     the actor
+     * @param location  the actor's location
+     * @param direction the actor's direction
+     * @param doRefresh ignored, as the game grid is never refreshed
+     * @see             Actor
+     */
+    @Override
+    protected void addActor(Actor actor, Location location, double direction, boolean doRefresh) {
+        super.addActor(actor, location, direction, false);
+    }
+
+    /**
+     * Overridden method setting the game window's title. Since there is no game window, it does nothing.
+     * @param title the title
+     */
+    @Override
+    public void setTitle(String title) {
+        // do nothing
+    }
+}
@@ -49,8 +49,11 @@ public class Ice extends Item {
         if (matchPacmanLocation(manager))
             // trigger signal
             if (manager.isMultiverse()) {
-                for (Monster monster : manager.getMonsters())
-                    monster.stopMoving(FREEZE_TIME);
+                // indexed, so that eating does not allocate an iterator
+                for (int i=0; i<manager.getMonsters().size(); i++)
+                    manager.getMonsters().get(i).stopMoving(FREEZE_TIME);
+                if (manager.getMonsterSwarm() != null)
+                    manager.getMonsterSwarm().stopMoving(FREEZE_TIME);
             }
     }
 }
\ No newline at end of file
@@ -42,10 +42,11 @@ public abstract class Item extends InanimateActor {
     /**
      * Remove item; used when item is eaten by PacMan.
      * @param manager object manager
+     * @param cell    cell id of the item
      */
-    protected void removeItem(ObjectManager manager) {
-        HashableLocation hashLocation = new HashableLocation(getLocation());
-        manager.getItems().remove(hashLocation);
+    protected void removeItem(ObjectManager manager, int cell) {
+        manager.getItems().remove(cell);
+        manager.getEdibleIndex().remove(cell);
         removeSelf();
     }
 
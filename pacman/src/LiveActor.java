@@ -2,8 +2,9 @@ package src;
 import src.utility.GameCallback;
 
 import ch.aplu.jgamegrid.*;
-import java.util.LinkedList;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 
 /**
@@ -21,14 +22,17 @@ import java.util.Random;
 public abstract class LiveActor extends GameActor implements Movable {
     // manager and randomizer
     private final ObjectManager manager;
-    private final Random randomizer = new Random(0);
+    private RandomGenerator randomizer = new Random(0);
 
     // initial location for actor instantiation
     private Location initLocation;
+    // location movement rules return their moves in, reused from move to move, as actors copy the locations
+    // they are set to
+    private final Location nextLocation = new Location();
 
-    // Visited locations list - after a cycle, the earliest location will be removed from
-    // visited list. We use LinkedList instead of ArrayList for fast removal and adding.
-    private final LinkedList<Location> visitedList = new LinkedList<>();
+    // Visited locations - after a cycle, the earliest location is forgotten. Kept in a ring buffer
+    // with counts of its locations, so that adding and checking a location take constant time.
+    private VisitedHistory visitedHistory = new VisitedHistory(CYCLE_LENGTH);
 
     // direction-related - representing which angle to turn to for a move
     public static final int RIGHT_TURN_ANGLE = 90;
@@ -38,6 +42,8 @@ public abstract class LiveActor extends GameActor implements Movable {
 
     // step sizes
     public static final int NORMAL_STEP_SIZE = 1;
+    // number of moves after which a visited location is forgotten, unless set otherwise for an actor
+    public static final int CYCLE_LENGTH = 10;
 
     // other properties
     private String name;
@@ -66,6 +72,25 @@ public abstract class LiveActor extends GameActor implements Movable {
         return stepSize;
     }
 
+    /**
+     * Get the number of moves after which the live actor forgets a visited location.
+     * @return the cycle length
+     */
+    public int getCycleLength() {
+        return visitedHistory.getCycleLength();
+    }
+
+    /**
+     * Set the number of moves after which the live actor forgets a visited location, forgetting every
+     * location visited so far. Called before the actor is put to the game, as the cycle length is set per
+     * type of actor in the properties.
+     * @param cycleLength the cycle length, at least 1
+     */
+    public void setCycleLength(int cycleLength) {
+        assert cycleLength >= 1;
+        visitedHistory = new VisitedHistory(cycleLength);
+    }
+
     /**
      * Get the game grid.
      * @return the game grid
@@ -102,7 +127,7 @@ public abstract class LiveActor extends GameActor implements Movable {
      * the actor will make.
      * @return the randomizer
      */
-    public Random getRandomizer() {
+    public RandomGenerator getRandomizer() {
         return randomizer;
     }
 
@@ -160,6 +185,25 @@ public abstract class LiveActor extends GameActor implements Movable {
      */
     protected abstract void setSeed(int seed);
 
+    /**
+     * Give the live actor its own random stream, independent of every other actor's, instead of a seeded
+     * randomizer shared in kind with them. Used when the scenario splits its seed into a stream per actor.
+     * @param streamSeed seed of the actor's stream, derived from the scenario seed and the actor's index
+     * @see              ObjectManager
+     */
+    protected void setRandomStream(long streamSeed) {
+        setRandomizer(new SplittableRandom(streamSeed));
+    }
+
+    /**
+     * Set the randomizer dictating the live actor's movements.
+     * @param randomizer the randomizer
+     */
+    protected void setRandomizer(RandomGenerator randomizer) {
+        assert randomizer != null;
+        this.randomizer = randomizer;
+    }
+
 
     /**
      * Check whether a live actor can move to a specified location. This is to make sure that the location that
@@ -168,9 +212,34 @@ public abstract class LiveActor extends GameActor implements Movable {
      * @param location specified location
      * @return         boolean indicating whether actor can move there.
      * @see            Location
+     * @see            WalkabilityGrid
      */
     @Override
     public boolean canMove(Location location) {
+        return canMoveTo(location.getX(), location.getY());
+    }
+
+    /**
+     * Check whether a live actor can move to a specified location, given by its coordinates.
+     * @param x x-coordinate of the location
+     * @param y y-coordinate of the location
+     * @return  boolean indicating whether actor can move there
+     * @see     WalkabilityGrid
+     */
+    protected boolean canMoveTo(int x, int y) {
+        return getManager().getWalkabilityGrid().isWalkable(x, y);
+    }
+
+    /**
+     * Check whether a live actor can move to a specified location by looking the location up in the
+     * manager's wall hashmap. Equivalent to <code>boolean canMove(Location location)</code>, but allocates
+     * a hashable location on every call; it is kept as the reference to compare against in benchmarks.
+     * @param location specified location
+     * @return         boolean indicating whether actor can move there.
+     * @see            Location
+     * @see            HashableLocation
+     */
+    protected boolean canMoveByWallMap(Location location) {
         int x = location.getX(), y = location.getY();
         PacManGameGrid grid = getManager().getGame().getGrid();
         assert grid != null;
@@ -182,22 +251,91 @@ public abstract class LiveActor extends GameActor implements Movable {
     /**
      * Check whether a live actor can move a specified direction and units. This is to adjust
      * for actors that cannot fly, so movement can be obstructed by any wall on the way to
-     * the end point
+     * the end point. Compass directions of compiled step sizes are looked up in the maze graph.
      * @param directionValue specified direction
      * @param stepSize       number of units in direction
      * @return               boolean indicating whether actor can move there.
      * @see                  Location
+     * @see                  MazeGraph
      */
     protected boolean canMove(double directionValue, int stepSize) {
-        Location nextLocation = this.getLocation();
+        int direction = Compass.indexOf(directionValue);
+        if (direction != Compass.NO_DIRECTION && MazeGraph.hasStepSize(stepSize))
+            return getManager().getMazeGraph().isOpen(getX(), getY(), direction, stepSize);
+        if (direction == Compass.NO_DIRECTION) {
+            Location nextLocation = this.getLocation();
+            for (int i=0; i<stepSize; i++) {
+                nextLocation = nextLocation.getNeighbourLocation(directionValue);
+                if (!canMove(nextLocation))
+                    return false;
+            }
+            return true;
+        }
+
+        // compass directions step by fixed offsets, without allocating any location
+        int x = getX(), y = getY();
         for (int i=0; i<stepSize; i++) {
-            nextLocation = nextLocation.getNeighbourLocation(directionValue);
-            if (!canMove(nextLocation))
+            x += Compass.getOffsetX(direction, 1);
+            y += Compass.getOffsetY(direction, 1);
+            if (!canMoveTo(x, y))
                 return false;
         }
         return true;
     }
 
+    /**
+     * Get the compass directions in which the live actor can move a specified number of steps, as with
+     * <code>boolean canMove(double directionValue, int stepSize)</code>.
+     * @param stepSize number of steps, which must be compiled in the maze graph
+     * @return         the bitmask of open directions
+     * @see            MazeGraph
+     */
+    protected int getOpenDirections(int stepSize) {
+        return getManager().getMazeGraph().getOpenDirections(getX(), getY(), stepSize);
+    }
+
+    /**
+     * Get the compass directions in which the live actor can jump over a wall after a specified number of
+     * steps, landing <code>Wizard.BEYOND_WALL</code> beyond it.
+     * @param stepSize number of steps, which must be compiled in the maze graph
+     * @return         the bitmask of wall jumps
+     * @see            MazeGraph
+     */
+    protected int getJumpDirections(int stepSize) {
+        return getManager().getMazeGraph().getJumpDirections(getX(), getY(), stepSize);
+    }
+
+    /**
+     * Get the location a specified number of steps away from the live actor in a specified direction, as
+     * with <code>Location.getAdjacentLocation</code>. For compass directions, the location is the one
+     * reused by <code>Location getNextLocation(int x, int y)</code>.
+     * @param directionValue specified direction
+     * @param stepSize       specified number of steps
+     * @return               the adjacent location
+     * @see                  Compass
+     */
+    protected Location getAdjacentLocation(double directionValue, int stepSize) {
+        int direction = Compass.indexOf(directionValue);
+        if (direction == Compass.NO_DIRECTION || ! Compass.hasOffsets(stepSize))
+            return getLocation().getAdjacentLocation(directionValue, stepSize);
+        return getNextLocation(getX() + Compass.getOffsetX(direction, stepSize),
+                               getY() + Compass.getOffsetY(direction, stepSize));
+    }
+
+    /**
+     * Get a location for a movement rule to return, without allocating one: the same location is reused
+     * on every call, so it is only valid until the next call. That is enough for a move, since setting an
+     * actor's location copies it, and the visited history only keeps the coordinates.
+     * @param x x-coordinate of the location
+     * @param y y-coordinate of the location
+     * @return  the location
+     */
+    protected Location getNextLocation(int x, int y) {
+        nextLocation.x = x;
+        nextLocation.y = y;
+        return nextLocation;
+    }
+
 
     /**
      * Add location to the hashmap of visited locations. This method is implemented from Movable interface.
@@ -215,10 +353,7 @@ public abstract class LiveActor extends GameActor implements Movable {
      */
     @Override
     public void addVisitedList(Location location) {
-        int CYCLE_LENGTH = 10;
-        visitedList.add(location);
-        if (visitedList.size() == CYCLE_LENGTH)
-            visitedList.removeFirst();
+        visitedHistory.add(location.x, location.y);
     }
 
     /**
@@ -235,8 +370,16 @@ public abstract class LiveActor extends GameActor implements Movable {
      */
     @Override
     public boolean notVisited(Location location) {
-        for (Location loc : visitedList)
-            if (loc.equals(location)) return false;
-        return true;
+        return notVisited(location.getX(), location.getY());
+    }
+
+    /**
+     * Check if live actor has not visited a specific location, given by its coordinates.
+     * @param x x-coordinate of the location
+     * @param y y-coordinate of the location
+     * @return  true if not visited, false if otherwise
+     */
+    protected boolean notVisited(int x, int y) {
+        return ! visitedHistory.contains(x, y);
     }
 }
@@ -0,0 +1,177 @@
+package src;
+
+
+/**
+ * MazeGraph class representing the maze as a graph of the moves live actors can make from every cell, so
+ * that movement rules look moves up rather than trying them against walls one location at a time. It is
+ * compiled from the walkability grid once the walls of the maze are built, and never changes afterwards.
+ * Moves from locations outside of the grid, where live actors may have been put, are compiled when needed.
+ * <p>
+ * For every cell and every step size up to <code>MAX_STEP_SIZE</code>, the graph keeps a bitmask of the
+ * compass directions, bit <code>d</code> standing for the direction of index <code>d</code> as in
+ * <code>Compass</code>:
+ * <ul>
+ *     <li>the open directions, in which every location on the way is walkable, as with
+ *         <code>LiveActor.canMove(double, int)</code>;
+ *     <li>the wall jumps, in which the location just beyond the step is walkable and every location on the
+ *         way before the last step is walkable, as Wizard needs to walk through a wall.
+ * </ul>
+ * @see WalkabilityGrid
+ * @see Compass
+ * @see Wizard
+ */
+public class MazeGraph {
+    // largest step size moves are compiled for
+    public static final int MAX_STEP_SIZE = Monster.AGGRESSIVE_STEP_SIZE;
+    // bitmask of every compass direction
+    public static final int ALL_DIRECTIONS = (1 << Compass.NUM_DIRECTIONS) - 1;
+
+    // the walkability grid the graph is compiled from
+    private final WalkabilityGrid walkabilityGrid;
+    // dimensions of the grid
+    private final int width;
+    private final int height;
+    // open directions and wall jumps of every cell in row-major order, by step size
+    private final byte[][] openDirections = new byte[MAX_STEP_SIZE + 1][];
+    private final byte[][] jumpDirections = new byte[MAX_STEP_SIZE + 1][];
+
+    /**
+     * MazeGraph constructor, compiling the moves from every cell of a walkability grid.
+     * @param walkabilityGrid the walkability grid, with every wall already set
+     */
+    public MazeGraph(WalkabilityGrid walkabilityGrid) {
+        assert walkabilityGrid != null;
+        this.walkabilityGrid = walkabilityGrid;
+        this.width = walkabilityGrid.getWidth();
+        this.height = walkabilityGrid.getHeight();
+        int numCells = width * height;
+        for (int stepSize = 1; stepSize <= MAX_STEP_SIZE; stepSize++) {
+            openDirections[stepSize] = new byte[numCells];
+            jumpDirections[stepSize] = new byte[numCells];
+        }
+
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++) {
+                int cell = y * width + x;
+                // directions open for one step fewer, where no step at all is open in every direction
+                int previousOpen = ALL_DIRECTIONS;
+                for (int stepSize = 1; stepSize <= MAX_STEP_SIZE; stepSize++) {
+                    int moves = compileMoves(x, y, stepSize, previousOpen);
+                    openDirections[stepSize][cell] = (byte) (moves & ALL_DIRECTIONS);
+                    jumpDirections[stepSize][cell] = (byte) (moves >>> Compass.NUM_DIRECTIONS);
+                    previousOpen = moves & ALL_DIRECTIONS;
+                }
+            }
+    }
+
+    /**
+     * Compile the moves of a step size from a location, given the directions open for one step fewer.
+     * @param x            x-coordinate of the location
+     * @param y            y-coordinate of the location
+     * @param stepSize     the number of steps
+     * @param previousOpen the directions open for one step fewer
+     * @return             the open directions in the low bits, and the wall jumps shifted above them
+     */
+    private int compileMoves(int x, int y, int stepSize, int previousOpen) {
+        int open = 0, jumps = 0;
+        for (int direction = 0; direction < Compass.NUM_DIRECTIONS; direction++) {
+            if (! hasDirection(previousOpen, direction)) continue;
+            // every step on the way is a single step, as in LiveActor.canMove(double, int)
+            if (walkabilityGrid.isWalkable(x + stepSize * Compass.getOffsetX(direction, 1),
+                                           y + stepSize * Compass.getOffsetY(direction, 1)))
+                open |= 1 << direction;
+            if (walkabilityGrid.isWalkable(x + Compass.getOffsetX(direction, stepSize + Wizard.BEYOND_WALL),
+                                           y + Compass.getOffsetY(direction, stepSize + Wizard.BEYOND_WALL)))
+                jumps |= 1 << direction;
+        }
+        return open | (jumps << Compass.NUM_DIRECTIONS);
+    }
+
+    /**
+     * Compile the moves of a step size from a location outside of the grid, where a live actor may have been
+     * put; as the graph only holds the cells within the grid, such moves are compiled on the spot.
+     * @param x        x-coordinate of the location
+     * @param y        y-coordinate of the location
+     * @param stepSize the number of steps
+     * @return         the open directions in the low bits, and the wall jumps shifted above them
+     */
+    private int compileOffGridMoves(int x, int y, int stepSize) {
+        int moves = 0, previousOpen = ALL_DIRECTIONS;
+        for (int step = 1; step <= stepSize; step++) {
+            moves = compileMoves(x, y, step, previousOpen);
+            previousOpen = moves & ALL_DIRECTIONS;
+        }
+        return moves;
+    }
+
+    /**
+     * Check whether a location is within the grid, viz. whether its moves are held by the graph.
+     * @param x x-coordinate of the location
+     * @param y y-coordinate of the location
+     * @return  true if within the grid, false if otherwise
+     */
+    private boolean isInGrid(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * Check whether moves of a specified step size are compiled.
+     * @param stepSize the step size
+     * @return         true if compiled, false if otherwise
+     */
+    public static boolean hasStepSize(int stepSize) {
+        return stepSize >= 1 && stepSize <= MAX_STEP_SIZE;
+    }
+
+    /**
+     * Check whether a bitmask of directions has a specified direction.
+     * @param directions the bitmask of directions
+     * @param direction  the direction index
+     * @return           true if it has the direction, false if otherwise
+     */
+    public static boolean hasDirection(int directions, int direction) {
+        return (directions & (1 << direction)) != 0;
+    }
+
+    /**
+     * Get the open directions from a cell, in which every location on the way a number of steps is walkable.
+     * @param x        x-coordinate of the cell, which may be outside of the grid
+     * @param y        y-coordinate of the cell, which may be outside of the grid
+     * @param stepSize the number of steps, which must be compiled
+     * @return         the bitmask of open directions
+     */
+    public int getOpenDirections(int x, int y, int stepSize) {
+        assert hasStepSize(stepSize);
+        if (isInGrid(x, y))
+            return openDirections[stepSize][y * width + x] & ALL_DIRECTIONS;
+        return compileOffGridMoves(x, y, stepSize) & ALL_DIRECTIONS;
+    }
+
+    /**
+     * Get the wall jumps from a cell, viz. the directions in which the location a number of steps and
+     * <code>Wizard.BEYOND_WALL</code> away is walkable, and every location on the way but the last step
+     * is walkable. Whether the last step itself is walkable is left to the open directions.
+     * @param x        x-coordinate of the cell, which may be outside of the grid
+     * @param y        y-coordinate of the cell, which may be outside of the grid
+     * @param stepSize the number of steps, which must be compiled
+     * @return         the bitmask of wall jumps
+     */
+    public int getJumpDirections(int x, int y, int stepSize) {
+        assert hasStepSize(stepSize);
+        if (isInGrid(x, y))
+            return jumpDirections[stepSize][y * width + x] & ALL_DIRECTIONS;
+        return compileOffGridMoves(x, y, stepSize) >>> Compass.NUM_DIRECTIONS;
+    }
+
+    /**
+     * Check whether every location on the way a number of steps from a cell in a direction is walkable.
+     * @param x         x-coordinate of the cell, which may be outside of the grid
+     * @param y         y-coordinate of the cell, which may be outside of the grid
+     * @param direction the direction index
+     * @param stepSize  the number of steps, which must be compiled
+     * @return          true if open, false if otherwise
+     */
+    public boolean isOpen(int x, int y, int direction, int stepSize) {
+        return hasDirection(getOpenDirections(x, y, stepSize), direction);
+    }
+}
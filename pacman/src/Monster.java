@@ -1,6 +1,6 @@
 package src;
 import ch.aplu.jgamegrid.*;
-import java.util.*;
+import java.util.Random;
 
 /**
  * Based on skeleton code for SWEN20003 Project, Semester 2, 2022, The University of Melbourne.
@@ -38,8 +38,29 @@ public abstract class Monster extends LiveActor {
     // time-related constants
     public static final int SECOND_TO_MILLISECONDS = 1000;
     public static final int AGGRAVATE_TIME = 3;
+    // index in the manager's monster list, which identifies the monster in the occupancy grid
+    private int monsterId = -1;
     // if it has stopped moving or not
     private boolean stopMoving = false;
+    // if it is frozen or not, which unlike stopping moving always wears off
+    private boolean isFrozen = false;
+    // move decided for the current tick: whether monster acts at all, and where to, if anywhere
+    private boolean isActing = false;
+    private Location decidedLocation = null;
+
+    // timed effects, scheduled whenever monster is frozen or sped up
+    private final EffectScheduler.TimedEffect unfreeze = new EffectScheduler.TimedEffect() {
+        @Override
+        protected void expire() {
+            isFrozen = false;
+        }
+    };
+    private final EffectScheduler.TimedEffect slowDown = new EffectScheduler.TimedEffect() {
+        @Override
+        protected void expire() {
+            setStepSize(LiveActor.NORMAL_STEP_SIZE);
+        }
+    };
 
     /**
      * Monster constructor.
@@ -70,13 +91,30 @@ public abstract class Monster extends LiveActor {
         setName(type.toString());
     }
 
+    /**
+     * Get the monster's id, viz. its index in the manager's list of monsters.
+     * @return the monster's id
+     * @see    OccupancyGrid
+     */
+    public int getMonsterId() {
+        return monsterId;
+    }
+
+    /**
+     * Set the monster's id; used once by the manager upon adding it to the list of monsters.
+     * @param monsterId the monster's id
+     */
+    protected void setMonsterId(int monsterId) {
+        this.monsterId = monsterId;
+    }
+
     /**
      * Overridden method for setting monster's seed.
      * @param seed specified seed
      */
     @Override
     protected void setSeed(int seed) {
-        getRandomizer().setSeed(seed);
+        setRandomizer(new Random(seed));
     }
 
     /**
@@ -88,35 +126,26 @@ public abstract class Monster extends LiveActor {
     }
 
     /**
-     * Stops monster's movement for a specified number of seconds.
+     * Stops monster's movement for a specified number of seconds. The duration is converted to game ticks
+     * and scheduled with the manager's effect scheduler, so that the effect is deterministic regardless of
+     * how fast the game is being run.
      * @param seconds number of seconds monster stops moving
+     * @see           EffectScheduler
      */
     protected void stopMoving(int seconds) {
-        setStopMoving(true);
-        Timer timer = new Timer(); // Instantiate Timer Object
-        final Monster monster = this;
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                monster.setStopMoving(false);
-            }
-        }, (long) seconds * SECOND_TO_MILLISECONDS);
+        isFrozen = true;
+        getManager().getEffectScheduler().schedule(unfreeze, Game.secondsToTicks(seconds));
     }
 
     /**
-     * Speed up monster's movement by a constant factor for a specified number of seconds.
+     * Speed up monster's movement by a constant factor for a specified number of seconds. Similar to
+     * stopping monster's movement, the duration is scheduled in game ticks.
      * @param seconds number of seconds monster speeds up
+     * @see           EffectScheduler
      */
     public void speedUp(int seconds) {
         this.setStepSize(AGGRESSIVE_STEP_SIZE);
-        Timer timer = new Timer();
-        final Monster monster = this;
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                monster.setStepSize(LiveActor.NORMAL_STEP_SIZE);
-            }
-        }, (long) seconds * SECOND_TO_MILLISECONDS);
+        getManager().getEffectScheduler().schedule(slowDown, Game.secondsToTicks(seconds));
     }
 
 
@@ -126,8 +155,36 @@ public abstract class Monster extends LiveActor {
      */
     @Override
     public void act() {
-        if (stopMoving) return;
         moveApproach();
+    }
+
+    /**
+     * Decide the monster's move for the current tick, without making it; the first phase of acting. A
+     * monster's decision only depends on itself, the maze and PacMan, never on other monsters, so the
+     * decisions of all monsters can be made in parallel, provided the manager's chase fields are up-to-date
+     * beforehand.
+     * @see #commitMove()
+     * @see ObjectManager#updateChaseFields()
+     */
+    protected void decideMove() {
+        isActing = ! (stopMoving || isFrozen);
+        if (! isActing) return;
+        decidedLocation = nextMonsterLocation(this.getStepSize());
+        if (decidedLocation == null) {
+            decidedLocation = nextMonsterLocation(LiveActor.NORMAL_STEP_SIZE);
+        }
+    }
+
+    /**
+     * Make the move decided for the current tick and log it; the second phase of acting. Moves must be
+     * made in the same order as monsters act in, so that the log stays the same.
+     * @see #decideMove()
+     */
+    protected void commitMove() {
+        if (! isActing) return;
+        isActing = false;
+        moveTo(decidedLocation);
+        decidedLocation = null;
         int DIRECTION_EXCEED = 150;
         int DIRECTION_PRECEDE = 210;
         boolean enable = getDirection() > DIRECTION_EXCEED && getDirection() < DIRECTION_PRECEDE;
@@ -147,24 +204,53 @@ public abstract class Monster extends LiveActor {
     @Override
     public void putActor(Game game) {
         game.addActor(this, getInitLocation(), Location.NORTH);
+        getManager().getOccupancyGrid().put(monsterId, getX(), getY());
     }
 
 
     /**
-     * Overridden moveApproach method from LiveActor class for monsters within the game
+     * Overridden moveApproach method from LiveActor class for monsters within the game. The move is decided
+     * and made right away, as both phases of acting in a row.
      * @see LiveActor
+     * @see #decideMove()
+     * @see #commitMove()
      */
     @Override
     public void moveApproach() {
-        Location newLocation = nextMonsterLocation(this.getStepSize());
-        if (newLocation == null) {
-            newLocation = nextMonsterLocation(LiveActor.NORMAL_STEP_SIZE);
-        }
+        decideMove();
+        commitMove();
+    }
 
+    /**
+     * Move monster to a specified location, registering it in the occupancy grid and checking whether it
+     * collided with PacMan.
+     * @param newLocation the location, or null to stand still
+     */
+    private void moveTo(Location newLocation) {
         // If you really cannot move, just stand still
         if (newLocation == null) return;
 
         this.setLocation(newLocation);
+        getManager().getOccupancyGrid().put(monsterId, newLocation.getX(), newLocation.getY());
+        getManager().checkCollision(this);
+    }
+
+    /**
+     * Get the distance from a specified location to PacMan, for monsters that chase PacMan. By default, it
+     * is the straight-line distance, which ignores walls; with wall-aware chasing, it is the number of moves
+     * along the shortest path to PacMan, read from the manager's flow field.
+     * @param x          x-coordinate of the specified location
+     * @param y          y-coordinate of the specified location
+     * @param isDiagonal whether the monster can move diagonally
+     * @return           the distance to PacMan
+     * @see              FlowField
+     */
+    protected int getChaseDistance(int x, int y, boolean isDiagonal) {
+        if (! getManager().isWallAwareChase()) {
+            PacActor pacActor = getManager().getPacActor();
+            return Compass.getDistance(x, y, pacActor.getX(), pacActor.getY());
+        }
+        return getManager().getChaseField(isDiagonal).getDistance(x, y);
     }
 
     /**
@@ -0,0 +1,849 @@
+package src;
+import ch.aplu.jgamegrid.Actor;
+import ch.aplu.jgamegrid.Location;
+import src.utility.GameCallback;
+import java.awt.GraphicsEnvironment;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * MonsterSwarm class holding a whole population of monsters in primitive arrays, rather than as one
+ * <code>Monster</code> actor each, so that games can have tens of thousands of monsters. Every monster is
+ * a slot in the arrays: its location, direction, type, the ticks its timed effects wear off on, the state
+ * of its randomizer and its visited locations. Monsters of each type occupy a contiguous range of slots,
+ * and every tick the movement rule of each type runs as a loop over its range.
+ * <p>
+ * The movement rules are those of <code>Troll</code>, <code>TX5</code>, <code>Alien</code>,
+ * <code>Orion</code> and <code>Wizard</code>, down to the order of random draws, which come from a
+ * reimplementation of <code>java.util.Random</code> over the arrays, or of <code>SplittableRandom</code>
+ * when every monster has its own random stream; hence a swarm moves and logs exactly like the same
+ * monsters as actors would. The one thing a swarm does not keep track of is which gold
+ * pieces PacMan has eaten, since Orion never uses it.
+ * <p>
+ * Monsters of a swarm are not actors of the game. A headless game draws nothing; otherwise, a pool of
+ * sprite actors draws a single monster per occupied cell, as any other monster in that cell is hidden
+ * beneath it anyway.
+ * @see Monster
+ * @see ObjectManager
+ */
+public class MonsterSwarm {
+    private static final int INIT_CAPACITY = 16;
+    private static final Monster.MonsterType[] MONSTER_TYPES = Monster.MonsterType.values();
+
+    // directions, as indices of the compass directions, each being a fixed angle clockwise from the previous
+    private static final int NUM_DIRECTIONS = Compass.NUM_DIRECTIONS;
+    private static final int INIT_DIRECTION = Location.CompassDirection.NORTH.ordinal();
+    // orthogonal directions TX5 chases PacMan in around walls, in order of preference
+    private static final int[] CHASE_DIRECTIONS = {
+            Location.CompassDirection.EAST.ordinal(), Location.CompassDirection.SOUTH.ordinal(),
+            Location.CompassDirection.WEST.ordinal(), Location.CompassDirection.NORTH.ordinal()
+    };
+    // Orion only moves in directions whose angle is a multiple of this
+    private static final int ORION_DIRECTION_MULTIPLE = 10;
+
+    // linear congruential generator of java.util.Random
+    private static final long RANDOM_MULTIPLIER = 0x5DEECE66DL;
+    private static final long RANDOM_ADDEND = 0xBL;
+    private static final long RANDOM_MASK = (1L << 48) - 1;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    // increment of the SplittableRandom streams monsters have when the seed is split
+    private static final long STREAM_GAMMA = 0x9e3779b97f4a7c15L;
+
+    // index indicating no gold piece
+    private static final int NO_GOLD = GoldOrder.NO_GOLD;
+
+    // the manager, and the walkable cells of its grid
+    private final ObjectManager manager;
+    private final WalkabilityGrid walkabilityGrid;
+    // whether every monster has its own SplittableRandom stream rather than a seeded java.util.Random
+    private final boolean isSplitRandom;
+    // whether all monsters have stopped moving for good
+    private boolean isStopped = false;
+
+    // number of monsters, and the first slot of every monster type, the last entry being the end of the last
+    private int size = 0;
+    private final int[] typeStarts = new int[MONSTER_TYPES.length + 1];
+    // state of every monster
+    private int[] xs = new int[INIT_CAPACITY];
+    private int[] ys = new int[INIT_CAPACITY];
+    private byte[] directions = new byte[INIT_CAPACITY];
+    private byte[] types = new byte[INIT_CAPACITY];
+    private long[] frozenUntil = new long[INIT_CAPACITY];
+    private long[] fastUntil = new long[INIT_CAPACITY];
+    private long[] seeds = new long[INIT_CAPACITY];
+    // number of visited locations each monster type remembers, viz. those of the last moves of a visited
+    // cycle, and the most any type remembers
+    private final int[] numVisited = new int[MONSTER_TYPES.length];
+    private final int visitedStride;
+    // visited locations as cell ids, each monster's in a ring of visitedStride slots, of which its type uses
+    // numVisited
+    private int[] visitedCells;
+    private int[] visitedStarts = new int[INIT_CAPACITY];
+    private int[] visitedCounts = new int[INIT_CAPACITY];
+
+    // gold pieces Orions walk between, shared by all Orions, and the state of every Orion's walk cycle;
+    // an Orion's visited gold pieces are a bitset of goldWords words, along with how many there are, and it
+    // has bucket counts of its own to pick gold pieces with, since Orions may decide in parallel
+    private GoldOrder golds = null;
+    private int goldWords = 0;
+    private int numOrions = 0;
+    private int[] orionSlots = new int[INIT_CAPACITY];
+    private int[] destinations = new int[INIT_CAPACITY];
+    private long[] goldVisited = new long[0];
+    private int[] numGoldVisited = new int[0];
+    private int[][] bucketCounts = new int[0][];
+
+    // moves decided for the current tick: whether every monster moves, and where to
+    private boolean[] isMoving = new boolean[INIT_CAPACITY];
+    private int[] decidedXs = new int[INIT_CAPACITY];
+    private int[] decidedYs = new int[INIT_CAPACITY];
+
+    // sprite actors drawing the swarm, by monster type, when there is a display
+    private final ArrayList<ArrayList<Actor>> spritePools = new ArrayList<>();
+    private Game game = null;
+
+    /**
+     * MonsterSwarm constructor, for an initially empty swarm.
+     * @param manager       the object manager
+     * @param isSplitRandom whether monsters have their own random streams, as with
+     *                      <code>LiveActor.setRandomStream</code>, rather than seeded randomizers
+     * @param cycleLengths  number of moves after which monsters of each type forget a visited location, in
+     *                      the order of the monster types, as with <code>LiveActor.setCycleLength</code>
+     */
+    public MonsterSwarm(ObjectManager manager, boolean isSplitRandom, int[] cycleLengths) {
+        assert manager != null && cycleLengths.length == MONSTER_TYPES.length;
+        this.manager = manager;
+        this.isSplitRandom = isSplitRandom;
+        int maxNumVisited = 0;
+        for (int t = 0; t < MONSTER_TYPES.length; t++) {
+            assert cycleLengths[t] >= 1;
+            numVisited[t] = cycleLengths[t] - 1;
+            maxNumVisited = Math.max(maxNumVisited, numVisited[t]);
+        }
+        this.visitedStride = maxNumVisited;
+        this.visitedCells = new int[INIT_CAPACITY * visitedStride];
+        this.walkabilityGrid = manager.getWalkabilityGrid();
+        for (int i = 0; i < MONSTER_TYPES.length; i++)
+            spritePools.add(new ArrayList<>());
+    }
+
+    /**
+     * Get the number of monsters in the swarm.
+     * @return the number of monsters
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add a monster to the swarm. Monsters must be added grouped by type, in the order of the monster types,
+     * which is also the order the manager instantiates monsters as actors in.
+     * @param type     the monster's type
+     * @param location the monster's initial location
+     * @param seed     the seed of the monster's randomizer, or of its random stream if split
+     */
+    public void add(Monster.MonsterType type, Location location, long seed) {
+        assert size == 0 || type.ordinal() >= types[size - 1];
+        if (size == xs.length) grow();
+        int i = size++;
+        xs[i] = location.getX();
+        ys[i] = location.getY();
+        directions[i] = (byte) INIT_DIRECTION;
+        types[i] = (byte) type.ordinal();
+        seeds[i] = isSplitRandom ? seed : ((int) seed ^ RANDOM_MULTIPLIER) & RANDOM_MASK;
+        orionSlots[i] = -1;
+        destinations[i] = NO_GOLD;
+        for (int t = type.ordinal() + 1; t < typeStarts.length; t++)
+            typeStarts[t] = size;
+
+        // as monsters would upon being instantiated
+        if (type == Monster.MonsterType.TX5)
+            freeze(i, TX5.INIT_STOP_TIME);
+        else if (type == Monster.MonsterType.Orion)
+            addOrion(i);
+    }
+
+    /**
+     * Put the swarm to the game, registering every monster in the manager's occupancy grid. With a display,
+     * an invisible actor is added to make the swarm act once per tick like other live actors do, and the
+     * swarm is drawn.
+     * @param game the game
+     * @see        OccupancyGrid
+     */
+    public void putActors(Game game) {
+        OccupancyGrid occupancyGrid = manager.getOccupancyGrid();
+        for (int i = 0; i < size; i++)
+            occupancyGrid.put(i, xs[i], ys[i]);
+        if (GraphicsEnvironment.isHeadless()) return;
+        this.game = game;
+        Actor swarmActor = new Actor() {
+            @Override
+            public void act() {
+                MonsterSwarm.this.act();
+            }
+        };
+        swarmActor.setSlowDown(LiveActor.SLOW_DOWN);
+        game.addActor(swarmActor, new Location(0, 0));
+        draw();
+    }
+
+    /**
+     * Set all monsters to stop moving for good; used when game is over.
+     */
+    public void setStopMoving() {
+        isStopped = true;
+    }
+
+    /**
+     * Freeze every monster for a specified number of seconds, as with <code>Monster.stopMoving</code>.
+     * @param seconds number of seconds monsters stop moving
+     */
+    public void stopMoving(int seconds) {
+        for (int i = 0; i < size; i++)
+            freeze(i, seconds);
+    }
+
+    /**
+     * Speed up every monster for a specified number of seconds, as with <code>Monster.speedUp</code>.
+     * @param seconds number of seconds monsters speed up
+     */
+    public void speedUp(int seconds) {
+        long until = manager.getEffectScheduler().getCurrentTick() + Game.secondsToTicks(seconds);
+        Arrays.fill(fastUntil, 0, size, until);
+    }
+
+    /**
+     * Let every monster act once, as a monster actor does: unless stopped or frozen, it moves, and its
+     * location is logged. Monsters act in reverse order of their slots, like monster actors act in reverse
+     * order of being put to the game, so the log is the same either way.
+     */
+    public void act() {
+        act(null);
+    }
+
+    /**
+     * Let every monster act once, deciding the moves in parallel in a specified pool. Since no monster's
+     * decision depends on other monsters, the moves are the same as when deciding sequentially, and they
+     * are made and logged sequentially, in the same order as ever.
+     * @param pool the pool to decide moves in, or null to decide them sequentially
+     * @see        DecisionTask
+     */
+    public void act(ForkJoinPool pool) {
+        if (isStopped) return;
+        if (pool == null)
+            decideAll(0, size);
+        else {
+            manager.updateChaseFields();
+            pool.invoke(new DecisionTask(this::decideAll, 0, size));
+        }
+        for (int type = MONSTER_TYPES.length - 1; type >= 0; type--)
+            if (typeStarts[type] < typeStarts[type + 1])
+                commitAll(MONSTER_TYPES[type], typeStarts[type], typeStarts[type + 1]);
+        if (game != null) draw();
+    }
+
+
+    /**
+     * Decide the moves of every monster in a range of slots for the current tick.
+     * @param from the first slot
+     * @param to   the slot after the last one
+     */
+    private void decideAll(int from, int to) {
+        long currentTick = manager.getEffectScheduler().getCurrentTick();
+        int[] candidates = new int[NUM_DIRECTIONS];
+        for (int i = from; i < to; i++) {
+            isMoving[i] = false;
+            if (currentTick < frozenUntil[i]) continue;
+            int stepSize = currentTick < fastUntil[i] ? Monster.AGGRESSIVE_STEP_SIZE : LiveActor.NORMAL_STEP_SIZE;
+            Monster.MonsterType type = MONSTER_TYPES[types[i]];
+
+            // as with Monster.decideMove, retry with the normal step size if no location is found
+            isMoving[i] = nextLocation(type, i, stepSize, candidates) ||
+                          nextLocation(type, i, LiveActor.NORMAL_STEP_SIZE, candidates);
+        }
+    }
+
+    /**
+     * Make and log the decided moves of every monster in a range of slots, all of the same type.
+     * @param type  the monsters' type
+     * @param start the first slot
+     * @param end   the slot after the last one
+     */
+    private void commitAll(Monster.MonsterType type, int start, int end) {
+        long currentTick = manager.getEffectScheduler().getCurrentTick();
+        OccupancyGrid occupancyGrid = manager.getOccupancyGrid();
+        GameCallback gameCallback = manager.getGameCallback();
+        String name = type.toString();
+        for (int i = end - 1; i >= start; i--) {
+            if (currentTick < frozenUntil[i]) continue;
+            if (isMoving[i]) {
+                xs[i] = decidedXs[i];
+                ys[i] = decidedYs[i];
+                occupancyGrid.put(i, xs[i], ys[i]);
+                manager.checkCollision(xs[i], ys[i]);
+            }
+            gameCallback.monsterLocationChanged(name, xs[i], ys[i]);
+        }
+    }
+
+    /**
+     * Find the next location of a monster by the movement rule of its type.
+     * @param type       the monster's type
+     * @param i          the monster's slot
+     * @param stepSize   the monster's step size
+     * @param candidates scratch space for the directions a rule picks from
+     * @return           true if a location is found, in which case it is left as the monster's decided one
+     */
+    private boolean nextLocation(Monster.MonsterType type, int i, int stepSize, int[] candidates) {
+        return switch (type) {
+            case Troll  -> nextTrollLocation(i, stepSize);
+            case TX5    -> nextTX5Location(i, stepSize);
+            case Alien  -> nextAlienLocation(i, stepSize, candidates);
+            case Orion  -> nextOrionLocation(i, stepSize, candidates);
+            case Wizard -> nextWizardLocation(i, stepSize, candidates);
+        };
+    }
+
+    /**
+     * Troll's movement rule: turn left or right at random, else go forward, else turn the other way, else
+     * go back. Where to turn is looked up in the turn table.
+     * @param i        the monster's slot
+     * @param stepSize the monster's step size
+     * @return         true if a location is found
+     * @see            Troll
+     * @see            TurnTable
+     */
+    private boolean nextTrollLocation(int i, int stepSize) {
+        int sign = nextDouble(i) < 0.5 ? 1 : -1;
+        return turnAndMove(i, directions[i], sign, stepSize);
+    }
+
+    /**
+     * TX5's movement rule: head towards PacMan unless blocked or already visited there, else move like a
+     * troll. Every location moved to is remembered as visited.
+     * @param i        the monster's slot
+     * @param stepSize the monster's step size
+     * @return         true if a location is found
+     * @see            TX5
+     */
+    private boolean nextTX5Location(int i, int stepSize) {
+        int oldDirection = directions[i];
+        directions[i] = (byte) (manager.isWallAwareChase() ? getChaseDirection(i) : getDirectionToPacman(i));
+        boolean isFound = canMove(i, directions[i], stepSize) &&
+                          notVisited(i, getAdjacentX(i, directions[i], stepSize),
+                                        getAdjacentY(i, directions[i], stepSize));
+        if (isFound) {
+            decidedXs[i] = getAdjacentX(i, directions[i], stepSize);
+            decidedYs[i] = getAdjacentY(i, directions[i], stepSize);
+        }
+        else {
+            int sign = nextDouble(i) < 0.5 ? 1 : -1;
+            isFound = turnAndMove(i, oldDirection, sign, stepSize);
+        }
+        if (isFound) addVisited(i, decidedXs[i], decidedYs[i]);
+        return isFound;
+    }
+
+    /**
+     * Alien's movement rule: among all walkable locations a step away in any direction, pick one of the
+     * closest to PacMan at random.
+     * @param i          the monster's slot
+     * @param stepSize   the monster's step size
+     * @param candidates scratch space for the directions to pick from
+     * @return           true if a location is found
+     * @see              Alien
+     */
+    private boolean nextAlienLocation(int i, int stepSize, int[] candidates) {
+        int numCandidates = 0;
+        int minDistance = Integer.MAX_VALUE;
+        for (int direction = 0; direction < NUM_DIRECTIONS; direction++) {
+            int x = getAdjacentX(i, direction, stepSize), y = getAdjacentY(i, direction, stepSize);
+            int distance = getChaseDistance(x, y);
+            if (walkabilityGrid.isWalkable(x, y) && distance <= minDistance) {
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    numCandidates = 0;
+                }
+                candidates[numCandidates++] = direction;
+            }
+        }
+        if (numCandidates == 0) return false;
+        int direction = candidates[nextInt(i, 0, numCandidates)];
+        decidedXs[i] = getAdjacentX(i, direction, stepSize);
+        decidedYs[i] = getAdjacentY(i, direction, stepSize);
+        return true;
+    }
+
+    /**
+     * Orion's movement rule: walk towards a gold piece picked at random among those not visited in the
+     * current walk cycle, avoiding visited locations, and picking at random among equally close locations.
+     * If every such location has been visited, move in any orthogonal direction at random instead.
+     * @param i          the monster's slot
+     * @param stepSize   the monster's step size
+     * @param candidates scratch space for the directions to pick from
+     * @return           true if a location is found
+     * @see              Orion
+     */
+    private boolean nextOrionLocation(int i, int stepSize, int[] candidates) {
+        int orion = orionSlots[i];
+        if (destinations[i] != NO_GOLD && isAtGold(i, destinations[i])) {
+            setGoldVisited(orion, destinations[i]);
+            if (isAllGoldVisited(orion)) {
+                Arrays.fill(goldVisited, orion * goldWords, (orion + 1) * goldWords, 0L);
+                numGoldVisited[orion] = 0;
+            }
+            destinations[i] = NO_GOLD;
+        }
+        if (destinations[i] == NO_GOLD) destinations[i] = getRandomGold(i);
+        int goldX = golds.getCell(destinations[i]) % walkabilityGrid.getWidth();
+        int goldY = golds.getCell(destinations[i]) / walkabilityGrid.getWidth();
+
+        // unvisited locations closest to the gold piece
+        int numCandidates = 0;
+        int minDistance = Integer.MAX_VALUE;
+        for (int direction = 0; direction < NUM_DIRECTIONS; direction++) {
+            if (Compass.getDirectionValue(direction) % ORION_DIRECTION_MULTIPLE != 0) continue;
+            int x = getAdjacentX(i, direction, stepSize), y = getAdjacentY(i, direction, stepSize);
+            int distance = Compass.getDistance(x, y, goldX, goldY);
+            if (canMove(i, direction, stepSize) && notVisited(i, x, y) && distance <= minDistance) {
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    numCandidates = 0;
+                }
+                candidates[numCandidates++] = direction;
+            }
+        }
+
+        int direction = -1;
+        if (numCandidates > 0)
+            direction = candidates[nextInt(i, 0, numCandidates)];
+        else {
+            // any movable orthogonal direction, tried in random order
+            int numDirections = Compass.fillDirections(candidates);
+            while (numDirections > 0) {
+                int index = nextInt(i, 0, numDirections);
+                if (canMove(i, candidates[index], stepSize) &&
+                    Compass.getDirectionValue(candidates[index]) % ORION_DIRECTION_MULTIPLE == 0) {
+                    direction = candidates[index];
+                    break;
+                }
+                numDirections = Compass.removeDirection(candidates, index, numDirections);
+            }
+        }
+        if (direction < 0) return false;
+        decidedXs[i] = getAdjacentX(i, direction, stepSize);
+        decidedYs[i] = getAdjacentY(i, direction, stepSize);
+        addVisited(i, decidedXs[i], decidedYs[i]);
+        return true;
+    }
+
+    /**
+     * Wizard's movement rule: try every direction in random order, moving there if possible, or through a
+     * wall if the location just beyond it is walkable. Both are looked up in the maze graph once.
+     * @param i          the monster's slot
+     * @param stepSize   the monster's step size
+     * @param candidates scratch space for the directions to pick from
+     * @return           true if a location is found
+     * @see              Wizard
+     */
+    private boolean nextWizardLocation(int i, int stepSize, int[] candidates) {
+        MazeGraph mazeGraph = manager.getMazeGraph();
+        int openDirections = mazeGraph.getOpenDirections(xs[i], ys[i], stepSize);
+        int jumpDirections = mazeGraph.getJumpDirections(xs[i], ys[i], stepSize);
+        int numDirections = Compass.fillDirections(candidates);
+        while (numDirections > 0) {
+            int index = nextInt(i, 0, numDirections);
+            int direction = candidates[index];
+            if (MazeGraph.hasDirection(openDirections, direction)) {
+                decidedXs[i] = getAdjacentX(i, direction, stepSize);
+                decidedYs[i] = getAdjacentY(i, direction, stepSize);
+                return true;
+            }
+            if (MazeGraph.hasDirection(jumpDirections, direction)) {
+                decidedXs[i] = getAdjacentX(i, direction, stepSize + Wizard.BEYOND_WALL);
+                decidedYs[i] = getAdjacentY(i, direction, stepSize + Wizard.BEYOND_WALL);
+                return true;
+            }
+            numDirections = Compass.removeDirection(candidates, index, numDirections);
+        }
+        return false;
+    }
+
+
+    /**
+     * Turn a monster as decided by the turn table from a heading and a random sign, and check whether it
+     * can move a step in the direction it turned to.
+     * @param i        the monster's slot
+     * @param heading  the direction the monster is heading in
+     * @param sign     the random sign
+     * @param stepSize the monster's step size
+     * @return         true if it can move, in which case the location is left as the decided one
+     * @see            TurnTable
+     */
+    private boolean turnAndMove(int i, int heading, int sign, int stepSize) {
+        int decision = TurnTable.decide(manager.getMazeGraph().getOpenDirections(xs[i], ys[i], stepSize),
+                                        heading, sign);
+        int direction = Compass.turn(heading, TurnTable.getTurnAngle(decision));
+        directions[i] = (byte) direction;
+        if (! TurnTable.isMove(decision)) return false;
+        decidedXs[i] = getAdjacentX(i, direction, stepSize);
+        decidedYs[i] = getAdjacentY(i, direction, stepSize);
+        return true;
+    }
+
+    /**
+     * Check whether a monster can move a specified direction and units, as with
+     * <code>LiveActor.canMove(double, int)</code>: every location on the way must be walkable. Compiled
+     * step sizes are looked up in the maze graph.
+     * @param i         the monster's slot
+     * @param direction the direction
+     * @param stepSize  number of units in direction
+     * @return          true if it can move, false if otherwise
+     * @see             MazeGraph
+     */
+    private boolean canMove(int i, int direction, int stepSize) {
+        if (MazeGraph.hasStepSize(stepSize))
+            return manager.getMazeGraph().isOpen(xs[i], ys[i], direction, stepSize);
+        int x = xs[i], y = ys[i];
+        for (int step = 0; step < stepSize; step++) {
+            x += Compass.getOffsetX(direction, 1);
+            y += Compass.getOffsetY(direction, 1);
+            if (! walkabilityGrid.isWalkable(x, y)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the x-coordinate of the location a number of steps away from a monster in a direction.
+     * @param i         the monster's slot
+     * @param direction the direction
+     * @param stepSize  the number of steps
+     * @return          the x-coordinate
+     */
+    private int getAdjacentX(int i, int direction, int stepSize) {
+        return xs[i] + Compass.getOffsetX(direction, stepSize);
+    }
+
+    /**
+     * Get the y-coordinate of the location a number of steps away from a monster in a direction.
+     * @param i         the monster's slot
+     * @param direction the direction
+     * @param stepSize  the number of steps
+     * @return          the y-coordinate
+     */
+    private int getAdjacentY(int i, int direction, int stepSize) {
+        return ys[i] + Compass.getOffsetY(direction, stepSize);
+    }
+
+    /**
+     * Get the orthogonal direction from a monster towards PacMan, as with
+     * <code>Location.get4CompassDirectionTo</code>.
+     * @param i the monster's slot
+     * @return  the direction
+     */
+    private int getDirectionToPacman(int i) {
+        PacActor pacActor = manager.getPacActor();
+        return Compass.get4CompassDirection(xs[i], ys[i], pacActor.getX(), pacActor.getY());
+    }
+
+    /**
+     * Get the orthogonal direction from a monster along the shortest path to PacMan around walls, as TX5
+     * does with wall-aware chasing.
+     * @param i the monster's slot
+     * @return  the direction
+     */
+    private int getChaseDirection(int i) {
+        FlowField chaseField = manager.getChaseField(false);
+        int closestDirection = -1;
+        int minDistance = FlowField.UNREACHABLE;
+        for (int direction : CHASE_DIRECTIONS) {
+            int distance = chaseField.getDistance(getAdjacentX(i, direction, 1), getAdjacentY(i, direction, 1));
+            if (distance < minDistance) {
+                minDistance = distance;
+                closestDirection = direction;
+            }
+        }
+        return closestDirection >= 0 ? closestDirection : getDirectionToPacman(i);
+    }
+
+    /**
+     * Get the distance from a location to PacMan for diagonally moving monsters, as with
+     * <code>Monster.getChaseDistance</code>.
+     * @param x x-coordinate of the location
+     * @param y y-coordinate of the location
+     * @return  the distance to PacMan
+     */
+    private int getChaseDistance(int x, int y) {
+        if (manager.isWallAwareChase())
+            return manager.getChaseField(true).getDistance(x, y);
+        PacActor pacActor = manager.getPacActor();
+        return Compass.getDistance(x, y, pacActor.getX(), pacActor.getY());
+    }
+
+    /**
+     * Check that a monster has not visited a location within its last cycle of moves.
+     * @param i the monster's slot
+     * @param x x-coordinate of the location
+     * @param y y-coordinate of the location
+     * @return  true if not visited, false if otherwise
+     */
+    private boolean notVisited(int i, int x, int y) {
+        // monsters only ever visit walkable locations, all of which are within the grid
+        if (! walkabilityGrid.isInBound(x, y)) return true;
+        int cell = y * walkabilityGrid.getWidth() + x;
+        int offset = i * visitedStride;
+        for (int k = 0; k < visitedCounts[i]; k++)
+            if (visitedCells[offset + k] == cell) return false;
+        return true;
+    }
+
+    /**
+     * Remember a location as visited by a monster, forgetting the earliest one once a cycle is full.
+     * @param i the monster's slot
+     * @param x x-coordinate of the location
+     * @param y y-coordinate of the location
+     */
+    private void addVisited(int i, int x, int y) {
+        int length = numVisited[types[i]];
+        if (length == 0) return;
+        int cell = y * walkabilityGrid.getWidth() + x;
+        int offset = i * visitedStride;
+        if (visitedCounts[i] < length) {
+            visitedCells[offset + (visitedStarts[i] + visitedCounts[i]) % length] = cell;
+            visitedCounts[i]++;
+        }
+        else {
+            visitedCells[offset + visitedStarts[i]] = cell;
+            visitedStarts[i] = (visitedStarts[i] + 1) % length;
+        }
+    }
+
+    /**
+     * Freeze a monster for a specified number of seconds, converted to game ticks.
+     * @param i       the monster's slot
+     * @param seconds number of seconds
+     */
+    private void freeze(int i, int seconds) {
+        frozenUntil[i] = manager.getEffectScheduler().getCurrentTick() + Game.secondsToTicks(seconds);
+    }
+
+
+    /**
+     * Give a monster a slot among Orions, making the shared gold pieces first if there are none yet; every
+     * Orion walks between the same gold pieces, viz. all of them in the game, in the same order as Orion.
+     * @param i the monster's slot
+     */
+    private void addOrion(int i) {
+        if (golds == null) {
+            golds = new GoldOrder(manager);
+            goldWords = Bitsets.getNumWords(golds.size());
+        }
+        int orion = numOrions++;
+        orionSlots[i] = orion;
+        if (numOrions * goldWords > goldVisited.length)
+            goldVisited = Arrays.copyOf(goldVisited, Math.max(2 * goldVisited.length, numOrions * goldWords));
+        if (numOrions > numGoldVisited.length) {
+            numGoldVisited = Arrays.copyOf(numGoldVisited, Math.max(2 * numGoldVisited.length, numOrions));
+            bucketCounts = Arrays.copyOf(bucketCounts, numGoldVisited.length);
+        }
+        bucketCounts[orion] = new int[golds.getMapCapacity()];
+    }
+
+    /**
+     * Check whether a monster is at a gold piece.
+     * @param i    the monster's slot
+     * @param gold index of the gold piece
+     * @return     true if at the gold piece, false if otherwise
+     */
+    private boolean isAtGold(int i, int gold) {
+        return golds.getCell(gold) == ys[i] * walkabilityGrid.getWidth() + xs[i];
+    }
+
+    /**
+     * Check whether an Orion has visited a gold piece in its current walk cycle.
+     * @param orion the Orion's slot among Orions
+     * @param gold  index of the gold piece
+     * @return      true if visited, false if otherwise
+     */
+    private boolean isGoldVisited(int orion, int gold) {
+        return Bitsets.get(goldVisited, orion * goldWords, gold);
+    }
+
+    /**
+     * Mark a gold piece as visited by an Orion in its current walk cycle.
+     * @param orion the Orion's slot among Orions
+     * @param gold  index of the gold piece
+     */
+    private void setGoldVisited(int orion, int gold) {
+        if (Bitsets.set(goldVisited, orion * goldWords, gold))
+            numGoldVisited[orion]++;
+    }
+
+    /**
+     * Check whether an Orion has visited every gold piece in its current walk cycle.
+     * @param orion the Orion's slot among Orions
+     * @return      true if all visited, false if otherwise
+     */
+    private boolean isAllGoldVisited(int orion) {
+        return numGoldVisited[orion] == golds.size();
+    }
+
+    /**
+     * Pick a gold piece at random for an Orion to walk to, among those not visited in its current walk
+     * cycle, and other than the one it is at unless there is no other. The pick is Orion's, in the order of a
+     * new hash map of the unvisited gold pieces.
+     * @param i the monster's slot
+     * @return  index of the gold piece
+     */
+    private int getRandomGold(int i) {
+        int orion = orionSlots[i];
+        int numGolds = golds.size() - numGoldVisited[orion];
+        int goldHere = golds.getGold(ys[i] * walkabilityGrid.getWidth() + xs[i]);
+        boolean excludeCurrent = goldHere != NO_GOLD && ! isGoldVisited(orion, goldHere) && numGolds > 1;
+
+        int randomIndex = nextInt(i, 0, excludeCurrent ? numGolds - 1 : numGolds);
+        return golds.selectUnvisited(goldVisited, orion * goldWords, numGolds, randomIndex,
+                                     excludeCurrent ? goldHere : NO_GOLD, bucketCounts[orion]);
+    }
+
+
+    /**
+     * Get the next pseudorandom bits of a monster's randomizer, as with <code>Random.next</code>.
+     * @param i    the monster's slot
+     * @param bits number of bits
+     * @return     the bits
+     */
+    private int nextBits(int i, int bits) {
+        long seed = (seeds[i] * RANDOM_MULTIPLIER + RANDOM_ADDEND) & RANDOM_MASK;
+        seeds[i] = seed;
+        return (int) (seed >>> (48 - bits));
+    }
+
+    /**
+     * Advance a monster's random stream, returning the new state, as with <code>SplittableRandom</code>.
+     * @param i the monster's slot
+     * @return  the new state of the stream
+     */
+    private long nextStreamSeed(int i) {
+        return seeds[i] += STREAM_GAMMA;
+    }
+
+    /**
+     * Get the next integer of a monster's randomizer, as with <code>nextInt()</code>.
+     * @param i the monster's slot
+     * @return  the integer
+     */
+    private int nextInt(int i) {
+        if (! isSplitRandom) return nextBits(i, Integer.SIZE);
+        long z = nextStreamSeed(i);
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /**
+     * Get the next double of a monster's randomizer, as with <code>nextDouble()</code>.
+     * @param i the monster's slot
+     * @return  a double between 0 (inclusive) and 1 (exclusive)
+     */
+    private double nextDouble(int i) {
+        if (! isSplitRandom)
+            return (((long) nextBits(i, 26) << 27) + nextBits(i, 27)) * DOUBLE_UNIT;
+        long z = nextStreamSeed(i);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return ((z ^ (z >>> 31)) >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Get the next integer within a range of a monster's randomizer, as with <code>nextInt(int, int)</code>.
+     * @param i      the monster's slot
+     * @param origin the least integer
+     * @param bound  the upper bound (exclusive)
+     * @return       an integer between origin (inclusive) and bound (exclusive)
+     * @throws IllegalArgumentException if origin is not less than bound
+     */
+    private int nextInt(int i, int origin, int bound) {
+        if (origin >= bound) throw new IllegalArgumentException("bound must be greater than origin");
+        int r = nextInt(i);
+        int n = bound - origin, m = n - 1;
+        if ((n & m) == 0)
+            return (r & m) + origin;
+        if (n > 0) {
+            for (int u = r >>> 1; u + m - (r = u % n) < 0; u = nextInt(i) >>> 1);
+            return r + origin;
+        }
+        while (r < origin || r >= bound)
+            r = nextInt(i);
+        return r;
+    }
+
+
+    /**
+     * Draw the swarm, with a sprite actor for the first monster in every occupied cell. Sprite actors are
+     * pooled by monster type and reused from tick to tick, and those left over are hidden.
+     */
+    private void draw() {
+        OccupancyGrid occupancyGrid = manager.getOccupancyGrid();
+        int[] numUsed = new int[MONSTER_TYPES.length];
+        for (int i = 0; i < size; i++) {
+            if (occupancyGrid.getFirstOccupant(xs[i], ys[i]) != i) continue;
+            ArrayList<Actor> pool = spritePools.get(types[i]);
+            Location location = new Location(xs[i], ys[i]);
+            if (numUsed[types[i]] == pool.size()) {
+                Actor sprite = new Actor(getSprite(MONSTER_TYPES[types[i]]));
+                pool.add(sprite);
+                game.addActor(sprite, location);
+            }
+            else {
+                Actor sprite = pool.get(numUsed[types[i]]);
+                sprite.setLocation(location);
+                sprite.show();
+            }
+            numUsed[types[i]]++;
+        }
+        for (int type = 0; type < MONSTER_TYPES.length; type++) {
+            ArrayList<Actor> pool = spritePools.get(type);
+            for (int k = numUsed[type]; k < pool.size(); k++)
+                pool.get(k).hide();
+        }
+    }
+
+    /**
+     * Get the sprite image of a monster type.
+     * @param type the monster type
+     * @return     the sprite image file
+     */
+    private static String getSprite(Monster.MonsterType type) {
+        return switch (type) {
+            case Troll  -> Troll.DIRECTORY;
+            case TX5    -> TX5.DIRECTORY;
+            case Alien  -> Alien.DIRECTORY;
+            case Orion  -> Orion.directory;
+            case Wizard -> Wizard.DIRECTORY;
+        };
+    }
+
+    /**
+     * Grow the arrays of monsters' states to hold twice as many monsters.
+     */
+    private void grow() {
+        int capacity = 2 * xs.length;
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        directions = Arrays.copyOf(directions, capacity);
+        types = Arrays.copyOf(types, capacity);
+        frozenUntil = Arrays.copyOf(frozenUntil, capacity);
+        fastUntil = Arrays.copyOf(fastUntil, capacity);
+        seeds = Arrays.copyOf(seeds, capacity);
+        visitedCells = Arrays.copyOf(visitedCells, capacity * visitedStride);
+        visitedStarts = Arrays.copyOf(visitedStarts, capacity);
+        visitedCounts = Arrays.copyOf(visitedCounts, capacity);
+        orionSlots = Arrays.copyOf(orionSlots, capacity);
+        destinations = Arrays.copyOf(destinations, capacity);
+        isMoving = Arrays.copyOf(isMoving, capacity);
+        decidedXs = Arrays.copyOf(decidedXs, capacity);
+        decidedYs = Arrays.copyOf(decidedYs, capacity);
+    }
+}
@@ -0,0 +1,241 @@
+package src;
+import src.utility.GameCallback;
+import src.utility.PropertiesLoader;
+import ch.aplu.jgamegrid.Location;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Properties;
+
+
+/**
+ * MovementBenchmark class measuring the time and memory a single movement decision takes, for every
+ * monster's movement rule, PacMan's auto movement and the walkability check of live actors. Each is
+ * measured on the stock maze, as well as on generated mazes made of the stock maze repeated across and
+ * down, so that a change to a movement rule can be compared before and after, on small and large mazes.
+ * <p>
+ * An operation is run many times to let the JIT compiler settle before it is measured; it is then
+ * reported in nanoseconds and in bytes allocated per operation.
+ * @see Benchmark
+ */
+public class MovementBenchmark extends Benchmark {
+    // number of operations run before measuring, and number of operations measured
+    public static final int DEFAULT_WARMUP_OPS = 100000;
+    public static final int DEFAULT_MEASURED_OPS = 500000;
+    // sizes of generated mazes, in number of stock mazes across and down
+    public static final String[] DEFAULT_MAZE_SIZES = {"5x5", "10x10"};
+
+    // walkable cells of the stock maze, where PacMan and monsters are put: monsters start in the top left
+    // of the middle copy of the stock maze, PacMan in the bottom right of the last one
+    private static final int MONSTER_X = 1;
+    private static final int MONSTER_Y = 1;
+    private static final int PACMAN_X = PacManGameGrid.DEFAULT_NUM_HORIZONTAL_CELLS - 2;
+    private static final int PACMAN_Y = PacManGameGrid.DEFAULT_NUM_VERTICAL_CELLS - 2;
+
+    // benchmark properties
+    private final int warmupOps;
+    private final int measuredOps;
+
+    /**
+     * Operation interface of what is measured. Operations may change the game they run in, so they
+     * are run in batches, and the game is prepared for each batch outside the measurement.
+     */
+    private interface Operation {
+        /**
+         * Prepare the operation's game for a batch of operations.
+         * @param numOps maximum number of operations of the batch
+         * @return       number of operations the batch can run
+         */
+        default int prepare(int numOps) {
+            return numOps;
+        }
+
+        /**
+         * Run a batch of operations.
+         * @param numOps number of operations
+         * @return       a value depending on the result of every operation
+         */
+        long run(int numOps);
+    }
+
+    /**
+     * MovementBenchmark constructor.
+     * @param warmupOps   number of operations run before measuring
+     * @param measuredOps number of operations measured
+     */
+    public MovementBenchmark(int warmupOps, int measuredOps) {
+        assert warmupOps >= 0 && measuredOps > 0;
+        this.warmupOps = warmupOps;
+        this.measuredOps = measuredOps;
+    }
+
+
+    /**
+     * Run every operation on a maze.
+     * @param mazePath path of the maze file, or null for the stock maze
+     * @param maze     the maze, which is a single copy of the stock maze for the stock maze
+     * @return         the measurement of every operation
+     */
+    @Override
+    public Measurement[] run(String mazePath, GeneratedMaze maze) {
+        Properties properties = createProperties(mazePath,
+                GeneratedMaze.getCellX(maze.getTilesAcross() - 1, PACMAN_X) + "," +
+                GeneratedMaze.getCellY(maze.getTilesDown() - 1, PACMAN_Y));
+
+        // monsters never see each other while deciding, so a single game has a monster of every type, all
+        // starting at the same cell; PacMan moves in a game of its own, so that it cannot meet any of them
+        Properties monsterProperties = new Properties();
+        monsterProperties.putAll(properties);
+        String monsterLocation = GeneratedMaze.getCellX(maze.getTilesAcross() / 2, MONSTER_X) + "," +
+                                 GeneratedMaze.getCellY(maze.getTilesDown() / 2, MONSTER_Y);
+        for (Monster.MonsterType type : Monster.MonsterType.values())
+            monsterProperties.setProperty(type + PropertiesLoader.LOCATION_EXTENSION, monsterLocation);
+        HeadlessGame monsterGame = createGame(monsterProperties);
+        ArrayList<Monster> monsters = monsterGame.getManager().getMonsters();
+
+        Measurement[] measurements = new Measurement[monsters.size() + 3];
+        for (int i = 0; i < monsters.size(); i++)
+            measurements[i] = measure(monsters.get(i).getName() + ".nextMonsterLocation",
+                    monsterOperation(monsters.get(i)));
+        measurements[monsters.size()] = measure("PacActor.moveApproach", pacActorOperation(properties));
+
+        // walkability checks of every cell in turn, by the idle PacMan of the monsters' game
+        measurements[monsters.size() + 1] = measure("LiveActor.canMove",
+                walkabilityOperation(monsterGame, false));
+        measurements[monsters.size() + 2] = measure("LiveActor.canMoveByWallMap",
+                walkabilityOperation(monsterGame, true));
+        return measurements;
+    }
+
+    /**
+     * Measure an operation: it is first run to warm up, then measured over a number of runs.
+     * @param name      the operation's name
+     * @param operation the operation
+     * @return          the measurement
+     */
+    private Measurement measure(String name, Operation operation) {
+        runBatches(name, operation, warmupOps);
+        return runBatches(name, operation, measuredOps);
+    }
+
+    /**
+     * Run an operation a number of times, in as many batches as it takes. Preparing batches is not measured.
+     * @param name      the operation's name
+     * @param operation the operation
+     * @param numOps    number of times to run the operation
+     * @return          the measurement of running the operation
+     */
+    private Measurement runBatches(String name, Operation operation, int numOps) {
+        long nanos = 0;
+        long bytes = 0;
+        for (int remaining = numOps; remaining > 0; ) {
+            int batchOps = operation.prepare(remaining);
+            long startBytes = getAllocatedBytes();
+            long start = System.nanoTime();
+            addToChecksum(operation.run(batchOps));
+            nanos += System.nanoTime() - start;
+            bytes += getAllocatedBytes() - startBytes;
+            remaining -= batchOps;
+        }
+        return new Measurement(name, (double) nanos / numOps,
+                isAllocationMeasured() ? (double) bytes / numOps : Double.NaN);
+    }
+
+
+    /**
+     * Create the operation of a monster deciding its next location, after which it moves there.
+     * @param monster the monster
+     * @return        the operation
+     */
+    private Operation monsterOperation(Monster monster) {
+        return numOps -> {
+            long sum = 0;
+            for (int i = 0; i < numOps; i++) {
+                Location next = monster.nextMonsterLocation(monster.getStepSize());
+                if (next != null) {
+                    monster.setLocation(next);
+                    sum += next.x + next.y;
+                }
+            }
+            return sum;
+        };
+    }
+
+    /**
+     * Create the operation of PacMan moving towards the closest pill or gold piece, eating it upon arrival.
+     * Once PacMan is about to eat every one of them, its game is created anew.
+     * @param properties properties of the maze
+     * @return           the operation
+     */
+    private Operation pacActorOperation(Properties properties) {
+        return new Operation() {
+            private HeadlessGame game = createGame(properties);
+
+            @Override
+            public int prepare(int numOps) {
+                // PacMan eats at most a single item per move, and must leave at least one
+                if (game.getManager().getNumPillsAndGold() <= 1)
+                    game = createGame(properties);
+                return Math.min(numOps, game.getManager().getNumPillsAndGold() - 1);
+            }
+
+            @Override
+            public long run(int numOps) {
+                PacActor pacActor = game.getManager().getPacActor();
+                long sum = 0;
+                for (int i = 0; i < numOps; i++) {
+                    pacActor.moveApproach();
+                    sum += pacActor.getX() + pacActor.getY();
+                }
+                return sum;
+            }
+        };
+    }
+
+    /**
+     * Create the operation of a live actor checking whether it can move to a cell, going through every
+     * cell of the grid in row-major order.
+     * @param game       the game
+     * @param isWallMap  whether walls are looked up in the wall hashmap, rather than the walkability grid
+     * @return           the operation
+     */
+    private Operation walkabilityOperation(HeadlessGame game, boolean isWallMap) {
+        PacActor pacActor = game.getManager().getPacActor();
+        PacManGameGrid grid = game.getGrid();
+        Location location = new Location();
+        return numOps -> {
+            long sum = 0;
+            for (int i = 0; i < numOps; i++) {
+                if (++location.x >= grid.getNumHorizontalCells()) {
+                    location.x = 0;
+                    if (++location.y >= grid.getNumVerticalCells()) location.y = 0;
+                }
+                boolean canMove = isWallMap ? pacActor.canMoveByWallMap(location) : pacActor.canMove(location);
+                if (canMove) sum++;
+            }
+            return sum;
+        };
+    }
+
+
+    /**
+     * Create a headless game which has been set up, but not run. Its log is discarded.
+     * @param properties the game's properties
+     * @return           the game
+     */
+    private static HeadlessGame createGame(Properties properties) {
+        HeadlessGame game = new HeadlessGame(properties, new GameCallback(Writer.nullWriter()),
+                HeadlessGame.DEFAULT_MAX_TICKS);
+        game.setUp();
+        return game;
+    }
+
+    /**
+     * Print a measurement, in nanoseconds and bytes per operation.
+     * @param measurement the measurement
+     */
+    @Override
+    protected void printMeasurement(Measurement measurement) {
+        System.out.printf("  %-28s %10.1f ns/op %10.1f B/op%n", measurement.name(),
+                measurement.nanosPerOp(), measurement.bytesPerOp());
+    }
+}
@@ -19,37 +19,74 @@ import java.util.*;
 public class ObjectManager {
     // constant initial seed
     private final static int INIT_SEED = 30006;
+    // increment between the seeds of consecutive actors' random streams, as used by SplittableRandom
+    private final static long STREAM_GAMMA = 0x9e3779b97f4a7c15L;
 
     // PacMan
     private PacActor pacActor;
     // hashmap of monsters with their initial location as key
     private final ArrayList<Monster> monsters;
-    // hashmap of all items with their location as key
-    private final HashMap<HashableLocation, Item> items;
-    // hashmap of all walls with their location as key
-    private final HashMap<HashableLocation, Integer> walls;
+    // map of all gold pieces and ice cubes with their cell id as key
+    private final CellMap<Item> items;
+    // cells holding a pill, since pills are only grid data; the single pill stands for any of them
+    private final CellSet pills;
+    private final Pill pill = new Pill();
+    // index of the pills and gold pieces among the items, for finding the closest one to PacMan
+    private final EdibleIndex edibleIndex;
+    // hashmap of all walls with their location as key, kept as the reference for walkability checks; it is
+    // only built from the walkability grid once it is first needed
+    private HashMap<HashableLocation, Integer> walls = null;
+    // walkability of every cell, answering the same queries as the wall hashmap without allocating
+    private final WalkabilityGrid walkabilityGrid;
+    // moves live actors can make from every cell, compiled once the walls are built
+    private MazeGraph mazeGraph = null;
+    // cells occupied by monsters, with the monsters' indices in the monster list as occupant ids
+    private final OccupancyGrid occupancyGrid;
+    // swarm holding all monsters in swarm mode, in which case the monster list is empty
+    private MonsterSwarm monsterSwarm = null;
+    // distances to PacMan around walls, for orthogonal and diagonal moves; only made for wall-aware chasing
+    private FlowField orthogonalChaseField = null;
+    private FlowField diagonalChaseField = null;
 
     // the game
     private final Game game;
     // game callback
     private final GameCallback gameCallback;
-    // random seed
+    // scheduler of timed effects on monsters
+    private final EffectScheduler effectScheduler;
+    // random seed, and whether every actor gets its own random stream split from it rather than the seed
     private int seed = INIT_SEED;
+    private boolean isSplitRandom = false;
     // current number of pills and gold pieces, which indicate whether player has won or not
     private int numPillsAndGold = 0;
     private boolean isMultiverse = false;
+    // end of game events: whichever of PacMan colliding with a monster or eating every pill and gold piece
+    // happens first decides the outcome, and the game ends at the end of the tick it happens on
+    private boolean isGameOver = false;
+    private boolean hasPacmanWon = false;
+    private boolean hasGameEnded = false;
 
     /**
      * Constructor for ObjectManager.
-     * @see Game
+     * @param game         the game
+     * @param gameCallback the game callback which live actors log their activities to
+     * @see   Game
+     * @see   GameCallback
      */
-    public ObjectManager(Game game) {
-        assert game != null;
+    public ObjectManager(Game game, GameCallback gameCallback) {
+        assert game != null && gameCallback != null;
         this.game = game;
-        this.gameCallback = new GameCallback();
+        this.gameCallback = gameCallback;
+        this.effectScheduler = new EffectScheduler();
         this.monsters = new ArrayList<>();
-        this.items = new HashMap<>();
-        this.walls = new HashMap<>();
+        this.items = new CellMap<>(game.getGrid().getNumCells());
+        this.pills = new CellSet(game.getGrid().getNumCells());
+        this.edibleIndex = new EdibleIndex(game.getGrid().getNumHorizontalCells(),
+                                           game.getGrid().getNumVerticalCells());
+        this.walkabilityGrid = new WalkabilityGrid(game.getGrid().getNumHorizontalCells(),
+                                                   game.getGrid().getNumVerticalCells());
+        this.occupancyGrid = new OccupancyGrid(game.getGrid().getNumHorizontalCells(),
+                                               game.getGrid().getNumVerticalCells());
     }
 
     /**
@@ -70,6 +107,15 @@ public class ObjectManager {
         return gameCallback;
     }
 
+    /**
+     * Get the effect scheduler; used by monsters to time the effects of items PacMan has eaten.
+     * @return the effect scheduler
+     * @see    EffectScheduler
+     */
+    protected EffectScheduler getEffectScheduler() {
+        return effectScheduler;
+    }
+
     /**
      * Get the player PacMan. This is primarily used for checking collisions between PacMan and monsters.
      * @return player PacMan
@@ -89,24 +135,154 @@ public class ObjectManager {
     }
 
     /**
-     * Get all items currently still in the game.
-     * @return a hashmap where the key is the items' locations, and value being the items
-     * @see    HashableLocation
+     * Get the monster swarm, which holds all monsters in swarm mode.
+     * @return the monster swarm, or null if not in swarm mode
+     * @see    MonsterSwarm
+     */
+    protected MonsterSwarm getMonsterSwarm() {
+        return monsterSwarm;
+    }
+
+    /**
+     * Get all gold pieces and ice cubes currently still in the game. Pills are not included, since they are
+     * only kept as the cells holding them.
+     * @return a map where the key is the items' cell ids, and value being the items
+     * @see    CellMap
      * @see    Item
      */
-    protected HashMap<HashableLocation, Item> getItems() {
+    protected CellMap<Item> getItems() {
         return items;
     }
 
     /**
-     * Get all walls.
+     * Get the cells of all pills currently still in the game.
+     * @return the cells holding a pill
+     * @see    CellSet
+     */
+    protected CellSet getPills() {
+        return pills;
+    }
+
+    /**
+     * Get the pill standing for every pill of the game, which is used to eat or draw a pill of any cell.
+     * @return the pill
+     * @see    Pill
+     */
+    protected Pill getPill() {
+        return pill;
+    }
+
+    /**
+     * Get the item currently in a specified cell, be it a pill or any other item.
+     * @param cell the cell id
+     * @return     the item, or null if there is none
+     */
+    protected Item getItem(int cell) {
+        return pills.contains(cell) ? pill : items.get(cell);
+    }
+
+    /**
+     * Get the index of all pills and gold pieces currently still in the game; used by PacMan in auto mode
+     * to find the closest of them.
+     * @return the edible index
+     * @see    EdibleIndex
+     */
+    protected EdibleIndex getEdibleIndex() {
+        return edibleIndex;
+    }
+
+    /**
+     * Get all walls. Since walls are only ever looked up in the walkability grid, the hashmap is built
+     * from it upon first being requested, so it should not be requested before the grid is drawn.
      * @return a hashmap where the key is the walls' locations, and value being the walls
      * @see    HashableLocation
      */
     protected HashMap<HashableLocation, Integer> getWalls() {
+        if (walls == null) {
+            walls = new HashMap<>();
+            for (int y = 0; y < walkabilityGrid.getHeight(); y++)
+                for (int x = 0; x < walkabilityGrid.getWidth(); x++)
+                    if (! walkabilityGrid.isWalkable(x, y))
+                        HashableLocation.putLocationHash(walls, new Location(x, y), 1);
+        }
         return walls;
     }
 
+    /**
+     * Get the walkability grid, which is used by live actors to check whether they can move to a location.
+     * @return the walkability grid
+     * @see    WalkabilityGrid
+     */
+    protected WalkabilityGrid getWalkabilityGrid() {
+        return walkabilityGrid;
+    }
+
+    /**
+     * Compile the maze graph from the walkability grid. Called once every wall is built, before any live
+     * actor moves.
+     * @see MazeGraph
+     */
+    protected void compileMazeGraph() {
+        mazeGraph = new MazeGraph(walkabilityGrid);
+    }
+
+    /**
+     * Get the maze graph, which is used by live actors to look up the moves they can make from a cell.
+     * @return the maze graph
+     * @see    MazeGraph
+     */
+    protected MazeGraph getMazeGraph() {
+        assert mazeGraph != null;
+        return mazeGraph;
+    }
+
+    /**
+     * Get the occupancy grid, which keeps track of the cells monsters are in; used to check for collisions
+     * with PacMan, and to find the monsters in a cell. An occupant id is the monster's index in the list
+     * of all monsters.
+     * @return the occupancy grid
+     * @see    OccupancyGrid
+     */
+    protected OccupancyGrid getOccupancyGrid() {
+        return occupancyGrid;
+    }
+
+    /**
+     * Check whether chasing monsters chase PacMan along the shortest path around walls, rather than
+     * in a straight line.
+     * @return true if chasing is wall-aware, false if otherwise
+     */
+    protected boolean isWallAwareChase() {
+        return orthogonalChaseField != null;
+    }
+
+    /**
+     * Get the distances of every cell to PacMan around walls, for monsters chasing PacMan. The field is
+     * shared by all monsters, and only recomputed by the first monster reading it after PacMan has moved.
+     * Only available with wall-aware chasing.
+     * @param isDiagonal whether the monster can move diagonally
+     * @return           the flow field to PacMan
+     * @see              FlowField
+     */
+    protected FlowField getChaseField(boolean isDiagonal) {
+        assert isWallAwareChase();
+        FlowField chaseField = isDiagonal ? diagonalChaseField : orthogonalChaseField;
+        chaseField.update(pacActor.getX(), pacActor.getY());
+        return chaseField;
+    }
+
+    /**
+     * Bring the chase fields up-to-date with PacMan's location, if chasing is wall-aware. Monsters update
+     * the chase fields as they read them, so this must be done before monsters decide their moves in
+     * parallel, after which reading them no longer writes anything.
+     * @see FlowField
+     */
+    protected void updateChaseFields() {
+        if (! isWallAwareChase()) return;
+        orthogonalChaseField.update(pacActor.getX(), pacActor.getY());
+        diagonalChaseField.update(pacActor.getX(), pacActor.getY());
+    }
+
     /**
      * Get the number of pills and gold pieces left in the game. Hence, used to detect winning condition.
      * @return the number of pills and gold pieces left in the game
@@ -131,8 +307,111 @@ public class ObjectManager {
      * @see        Item
      */
     protected void decrementNumPillAndGold(Item item) {
-        if (item instanceof Gold || item instanceof Pill)
+        if (item instanceof Gold || item instanceof Pill) {
             numPillsAndGold--;
+            if (numPillsAndGold <= 0) setGameOver(true);
+        }
+    }
+
+    /**
+     * Check whether a live actor that has just moved has collided with PacMan, or with a monster if it is
+     * PacMan itself; a collision is a losing event. Called on every move, so that a collision is detected
+     * on the exact move it happens, even if it has cleared by the end of the tick.
+     * @param actor the live actor that has moved
+     * @see         LiveActor
+     */
+    protected void checkCollision(LiveActor actor) {
+        boolean hasCollided = (actor == pacActor) ? pacActor.collideMonster() : pacActor.actorCollide(actor);
+        if (hasCollided) setGameOver(false);
+    }
+
+    /**
+     * Check whether a monster of the monster swarm that has just moved to a specified location collided
+     * with PacMan, raising the lose event if it did.
+     * @param x x-coordinate of the monster
+     * @param y y-coordinate of the monster
+     * @see     MonsterSwarm
+     */
+    protected void checkCollision(int x, int y) {
+        if (pacActor.getX() == x && pacActor.getY() == y) setGameOver(false);
+    }
+
+    /**
+     * Check the end of game conditions once, as the game starts; afterwards, moving and eating raise the
+     * end of game events themselves.
+     */
+    protected void checkGameOver() {
+        checkCollision(pacActor);
+        if (numPillsAndGold <= 0) setGameOver(true);
+    }
+
+    /**
+     * Check whether an end of game event has happened, viz. whether PacMan has either won or lost.
+     * @return true if the game is over, false if otherwise
+     */
+    protected synchronized boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /**
+     * Check whether PacMan has won the game, by eating every pill and gold piece before colliding with any
+     * monster. Only meaningful once the game is over.
+     * @return true if PacMan has won, false if otherwise
+     */
+    protected synchronized boolean hasPacmanWon() {
+        return hasPacmanWon;
+    }
+
+    /**
+     * Check whether the game has ended, after which no live actor acts anymore.
+     * @return true if the game has ended, false if otherwise
+     */
+    protected synchronized boolean hasGameEnded() {
+        return hasGameEnded;
+    }
+
+    /**
+     * End the game once it is over; called at the end of the tick the end of game event has happened on.
+     * All monsters stop moving, PacMan stops acting, and any thread awaiting the end of the game is woken.
+     */
+    protected synchronized void endGame() {
+        assert isGameOver;
+        setMonstersStopMoving();
+        hasGameEnded = true;
+        notifyAll();
+    }
+
+    /**
+     * Wait until the game has ended, without polling the game's state.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected synchronized void awaitEndOfGame() throws InterruptedException {
+        while (! hasGameEnded)
+            wait();
+    }
+
+    /**
+     * Raise an end of game event. Only the first event counts, since the game is decided as soon as it is
+     * over.
+     * @param hasPacmanWon whether PacMan has won or lost
+     */
+    private synchronized void setGameOver(boolean hasPacmanWon) {
+        if (isGameOver) return;
+        isGameOver = true;
+        this.hasPacmanWon = hasPacmanWon;
+    }
+
+    /**
+     * Get the seed of an actor's own random stream, split from the scenario seed. It is the value a
+     * SplittableRandom seeded with the scenario seed would give at the actor's index, computed directly, so
+     * every actor's stream only depends on the scenario seed and the actor's index: PacMan has index 0, and
+     * monsters follow in the order they are instantiated in.
+     * @param actorIndex the actor's index
+     * @return           the seed of the actor's stream
+     * @see              SplittableRandom
+     */
+    private long getStreamSeed(int actorIndex) {
+        return new SplittableRandom(seed + actorIndex * STREAM_GAMMA).nextLong();
     }
 
 
@@ -145,6 +424,13 @@ public class ObjectManager {
     public void parseInanimateActor(Properties properties) {
         seed = Integer.parseInt(properties.getProperty("seed"));
         isMultiverse = properties.getProperty("version").contains("multiverse");
+        isSplitRandom = src.utility.PropertiesLoader.SPLIT_RANDOM.equals(
+                properties.getProperty(src.utility.PropertiesLoader.RANDOM_PROPERTY));
+        String chase = properties.getProperty(src.utility.PropertiesLoader.CHASE_PROPERTY);
+        if (src.utility.PropertiesLoader.WALL_AWARE_CHASE.equals(chase)) {
+            orthogonalChaseField = new FlowField(walkabilityGrid, false);
+            diagonalChaseField = new FlowField(walkabilityGrid, true);
+        }
 
         // concern only about locations of edible items
         ArrayList<InanimateActor.BlockType> blockTypes =
@@ -166,7 +452,7 @@ public class ObjectManager {
                     int posY = Integer.parseInt(pos[1]);
                     Location location = new Location(posX, posY);
                     Item item = switch(blockType) {
-                        case PILL -> new Pill();
+                        case PILL -> pill;
                         case GOLD -> new Gold();
                         case ICE  -> new Ice();
                         default   -> null;
@@ -175,11 +461,24 @@ public class ObjectManager {
                     // if null, then it is not an item
                     if (item == null) continue;
 
-                    // add to item hashmaps and set game grid's cell
-                    HashableLocation.putLocationHash(items, location, item);
+                    // replace any item placed at the same cell before, which PacMan no longer has to eat
+                    int cell = getGame().getGrid().getCellId(location);
+                    Item replaced = items.remove(cell);
+                    if (pills.remove(cell) || replaced instanceof Gold) {
+                        edibleIndex.remove(cell);
+                        numPillsAndGold--;
+                    }
+
+                    // add to item map (or pill cells) and set game grid's cell
+                    if (item == pill)
+                        pills.add(cell);
+                    else
+                        items.put(cell, item);
                     getGame().getGrid().setCell(location, blockType);
-                    if (blockType == InanimateActor.BlockType.PILL || blockType == InanimateActor.BlockType.GOLD)
+                    if (blockType == InanimateActor.BlockType.PILL || blockType == InanimateActor.BlockType.GOLD) {
+                        edibleIndex.add(cell);
                         numPillsAndGold++;
+                    }
                 }
             }
         }
@@ -195,7 +494,10 @@ public class ObjectManager {
     protected void instantiatePacActor(Properties properties) {
         // instantiate pacman
         pacActor = new PacActor(this);
-        pacActor.setSeed(seed);
+        if (isSplitRandom)
+            pacActor.setRandomStream(getStreamSeed(0));
+        else
+            pacActor.setSeed(seed);
         pacActor.setSlowDown(LiveActor.SLOW_DOWN);
 
         // parse pacman
@@ -214,6 +516,19 @@ public class ObjectManager {
         int pacManX = Integer.parseInt(pacManLocations[0]);
         int pacManY = Integer.parseInt(pacManLocations[1]);
         pacActor.setInitLocation(new Location(pacManX, pacManY));
+        pacActor.setCycleLength(parseCycleLength(properties, pacActor.getName()));
+    }
+
+    /**
+     * Parse the number of moves after which actors of a type forget a visited location.
+     * @param properties properties to parse for the cycle length
+     * @param name       name of the actor type
+     * @return           the cycle length, or <code>LiveActor.CYCLE_LENGTH</code> if unspecified
+     * @see   LiveActor
+     */
+    private static int parseCycleLength(Properties properties, String name) {
+        String cycleLength = properties.getProperty(name + src.utility.PropertiesLoader.CYCLE_EXTENSION, "");
+        return cycleLength.isBlank() ? LiveActor.CYCLE_LENGTH : Math.max(1, Integer.parseInt(cycleLength.trim()));
     }
 
 
@@ -225,6 +540,11 @@ public class ObjectManager {
     protected void instantiateMonsters(Properties properties) {
         // for each monster type
         ArrayList<Monster.MonsterType> types = new ArrayList<>(Arrays.asList(Monster.MonsterType.values()));
+        int[] cycleLengths = new int[types.size()];
+        for (Monster.MonsterType type : types)
+            cycleLengths[type.ordinal()] = parseCycleLength(properties, type.toString());
+        if (Boolean.parseBoolean(properties.getProperty(src.utility.PropertiesLoader.SWARM_PROPERTY)))
+            monsterSwarm = new MonsterSwarm(this, isSplitRandom, cycleLengths);
         for (Monster.MonsterType type : types) {
             // check if monster type is valid (as in, if type only exists in multiverse but property
             // states otherwise, then we ignore)
@@ -242,6 +562,11 @@ public class ObjectManager {
                     int posX = Integer.parseInt(pos[0]);
                     int posY = Integer.parseInt(pos[1]);
                     Location location = new Location(posX, posY);
+                    if (monsterSwarm != null) {
+                        int actorIndex = monsterSwarm.size() + 1;
+                        monsterSwarm.add(type, location, isSplitRandom ? getStreamSeed(actorIndex) : seed);
+                        continue;
+                    }
                     Monster monster = switch(type) {
                         case TX5    -> new TX5(this);
                         case Troll  -> new Troll(this);
@@ -252,11 +577,16 @@ public class ObjectManager {
 
                     // set location and add itself to monster list
                     monster.setInitLocation(location);
+                    monster.setMonsterId(monsters.size());
                     this.monsters.add(monster);
 
                     /// SET SEED AND SLOW DOWN TO REDUCE GAME DIFFICULTY
-                    monster.setSeed(seed);
+                    if (isSplitRandom)
+                        monster.setRandomStream(getStreamSeed(monsters.size()));
+                    else
+                        monster.setSeed(seed);
                     monster.setSlowDown(LiveActor.SLOW_DOWN);
+                    monster.setCycleLength(cycleLengths[type.ordinal()]);
                 }
             }
         }
@@ -264,37 +594,39 @@ public class ObjectManager {
 
 
     /**
-     * Instantiate the items in the grid and put them in their respective hashmaps. Called in Game constructor.
+     * Instantiate the items in the grid and put them in the item map. Called in Game constructor.
      * @param grid the game grid so that the items can be drawn onto
      * @see   PacManGameGrid
      */
     protected void instantiateObjects(PacManGameGrid grid) {
         for (int col = 0; col < grid.getNumVerticalCells(); col++)
             for (int row = 0; row < grid.getNumHorizontalCells(); row++) {
-                InanimateActor.BlockType itemType = grid.getMazeArray()[col][row];
+                InanimateActor.BlockType itemType = grid.getCell(row, col);
 
                 // ignore if location is already occupied
-                Location location = new Location(row, col);
-                if (HashableLocation.containLocationHash(items, location)) continue;
+                int cell = grid.getCellId(row, col);
+                if (items.containsKey(cell) || pills.contains(cell)) continue;
 
                 // otherwise add
                 switch (itemType) {
                     case PILL -> {
-                        Pill pill = new Pill();
-                        HashableLocation.putLocationHash(items, location, pill);
+                        pills.add(cell);
+                        edibleIndex.add(cell);
                         numPillsAndGold++;
                     }
                     case GOLD -> {
                         Gold gold = new Gold();
-                        HashableLocation.putLocationHash(items, location, gold);
+                        items.put(cell, gold);
+                        edibleIndex.add(cell);
                         numPillsAndGold++;
                     }
                     case ICE -> {
                         Ice ice = new Ice();
-                        HashableLocation.putLocationHash(items, location, ice);
+                        items.put(cell, ice);
                     }
                 }
             }
+        edibleIndex.setNumItems(items.size() + pills.size());
     }
 
 
@@ -305,5 +637,7 @@ public class ObjectManager {
     protected void setMonstersStopMoving() {
         for (Monster monster: monsters)
             monster.setStopMoving(true);
+        if (monsterSwarm != null)
+            monsterSwarm.setStopMoving();
     }
 }
@@ -0,0 +1,150 @@
+package src;
+import java.util.Arrays;
+
+
+/**
+ * OccupancyGrid class keeping track of which cells of the game grid are occupied by which monsters, so that
+ * checking whether a cell holds a monster is a single array read rather than a scan over every monster.
+ * Each occupant is identified by a small integer id, and the occupants of every cell are chained in a
+ * doubly linked list kept in arrays indexed by id; moving an occupant from one cell to another therefore
+ * takes constant time, and listing the occupants of a cell only visits those occupants.
+ * <p>
+ * Occupants may also be outside the grid (e.g. monsters placed at an invalid location), in which case they
+ * occupy no cell at all.
+ * @see ObjectManager
+ * @see Monster
+ */
+public class OccupancyGrid {
+    // id of no occupant, which ends every chain of occupants
+    public static final int NO_OCCUPANT = -1;
+    // cell of an occupant that is outside the grid, or not in the grid yet
+    private static final int NO_CELL = -1;
+    private static final int INIT_CAPACITY = 16;
+
+    // dimensions of the grid
+    private final int width;
+    private final int height;
+    // first occupant of every cell, in row-major order
+    private final int[] heads;
+    // cell of every occupant, and its neighbours in the chain of occupants of that cell
+    private int[] cells = new int[INIT_CAPACITY];
+    private int[] nexts = new int[INIT_CAPACITY];
+    private int[] prevs = new int[INIT_CAPACITY];
+
+    /**
+     * OccupancyGrid constructor, where every cell is initially unoccupied.
+     * @param width  the number of horizontal cells
+     * @param height the number of vertical cells
+     */
+    public OccupancyGrid(int width, int height) {
+        assert width > 0 && height > 0;
+        this.width = width;
+        this.height = height;
+        this.heads = new int[width * height];
+        Arrays.fill(heads, NO_OCCUPANT);
+        Arrays.fill(cells, NO_CELL);
+    }
+
+    /**
+     * Put an occupant at a specified cell, moving it out of the cell it was in before, if any. A cell
+     * outside the grid leaves the occupant in no cell.
+     * @param occupant id of the occupant
+     * @param x        x-coordinate of the cell
+     * @param y        y-coordinate of the cell
+     */
+    public void put(int occupant, int x, int y) {
+        assert occupant >= 0;
+        if (occupant >= cells.length) grow(occupant);
+        int cell = isInBound(x, y) ? y * width + x : NO_CELL;
+        if (cells[occupant] == cell) return;
+        unlink(occupant);
+        cells[occupant] = cell;
+        if (cell == NO_CELL) return;
+
+        // link at the head of the cell's chain
+        int head = heads[cell];
+        prevs[occupant] = NO_OCCUPANT;
+        nexts[occupant] = head;
+        if (head != NO_OCCUPANT) prevs[head] = occupant;
+        heads[cell] = occupant;
+    }
+
+    /**
+     * Remove an occupant from the grid. Does nothing if it is in no cell.
+     * @param occupant id of the occupant
+     */
+    public void remove(int occupant) {
+        if (occupant >= cells.length) return;
+        unlink(occupant);
+        cells[occupant] = NO_CELL;
+    }
+
+    /**
+     * Check whether a specified cell is occupied by any occupant.
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return  true if occupied, false if otherwise
+     */
+    public boolean isOccupied(int x, int y) {
+        return getFirstOccupant(x, y) != NO_OCCUPANT;
+    }
+
+    /**
+     * Get the first occupant of a specified cell; the rest of them follow from
+     * <code>int getNextOccupant(int occupant)</code>.
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return  id of the first occupant, or <code>NO_OCCUPANT</code> if the cell is unoccupied
+     */
+    public int getFirstOccupant(int x, int y) {
+        if (! isInBound(x, y)) return NO_OCCUPANT;
+        return heads[y * width + x];
+    }
+
+    /**
+     * Get the occupant following a specified occupant in the same cell.
+     * @param occupant id of the occupant
+     * @return         id of the next occupant, or <code>NO_OCCUPANT</code> if there is none
+     */
+    public int getNextOccupant(int occupant) {
+        assert occupant >= 0 && occupant < cells.length && cells[occupant] != NO_CELL;
+        return nexts[occupant];
+    }
+
+
+    /**
+     * Unlink an occupant from the chain of occupants of its cell, if it is in any.
+     * @param occupant id of the occupant
+     */
+    private void unlink(int occupant) {
+        int cell = cells[occupant];
+        if (cell == NO_CELL) return;
+        int prev = prevs[occupant], next = nexts[occupant];
+        if (prev == NO_OCCUPANT) heads[cell] = next;
+        else nexts[prev] = next;
+        if (next != NO_OCCUPANT) prevs[next] = prev;
+    }
+
+    /**
+     * Grow the arrays of occupants so that they can hold a specified occupant.
+     * @param occupant id of the occupant
+     */
+    private void grow(int occupant) {
+        int capacity = Math.max(2 * cells.length, occupant + 1);
+        int oldCapacity = cells.length;
+        cells = Arrays.copyOf(cells, capacity);
+        nexts = Arrays.copyOf(nexts, capacity);
+        prevs = Arrays.copyOf(prevs, capacity);
+        Arrays.fill(cells, oldCapacity, capacity, NO_CELL);
+    }
+
+    /**
+     * Check whether a specified cell is within the grid.
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return  true if within the grid, false if otherwise
+     */
+    private boolean isInBound(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+}
@@ -1,8 +1,7 @@
 package src;
 
 import ch.aplu.jgamegrid.Location;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 
 /**
  * Orion class extended from abstract parent Monster.
@@ -21,12 +20,23 @@ public class Orion extends Monster {
     private static final int CHECK_NON_DIAGONAL = 10;
     private static final int NON_DIAGONAL = 0;
     private static final int LIST_START = 0;
+    // Index indicating no gold piece
+    private static final int NO_GOLD = GoldOrder.NO_GOLD;
 
-    // Variables to keep track of positions of gold pieces for Orion's movement logic
-    private HashableLocation currDestination = null;
+    // Variables to keep track of positions of gold pieces for Orion's movement logic; gold pieces are
+    // identified by their index in the gold order, and sets of them are bitsets over these indices
+    private int currDestination = NO_GOLD;
     private boolean hasDestination = false;
-    private final HashMap<HashableLocation, Boolean> goldVisited = new HashMap<>();
-    private final HashMap<HashableLocation, Boolean> goldPacmanAte = new HashMap<>();
+    private GoldOrder golds;
+    // number of unvisited gold pieces per bucket, reused from pick to pick
+    private int[] bucketCounts;
+    private long[] goldVisited;
+    private int numGoldVisited = 0;
+    private long[] goldPacmanAte;
+    // Directions tying for the closest move to the destination, and directions left to pick from when there
+    // is none; both reused from move to move
+    private final int[] possibleDirections = new int[Compass.NUM_DIRECTIONS];
+    private final int[] directions = new int[Compass.NUM_DIRECTIONS];
 
     /**
      * Orion constructor
@@ -37,17 +47,35 @@ public class Orion extends Monster {
         assert manager != null;
         setType(TYPE);
         // Assert there are actually items for Orion to store
-        assert ! this.getManager().getItems().isEmpty();
+        assert ! this.getManager().getItems().isEmpty() || ! this.getManager().getPills().isEmpty();
         this.makeGoldMaps();
     }
 
     /**
-     * Get all the gold pieces that PacMan has eaten. Used to determine Orion's direction since its
+     * Set a gold piece to have been eaten by PacMan. Used to determine Orion's direction since its
      * behaviors are different when not all gold pieces have been eaten.
-     * @return the hashmap of gold pieces that pacman has eaten
+     * @param cellId cell id of the eaten gold piece
      */
-    public HashMap<HashableLocation, Boolean> getGoldPacmanAte() {
-        return goldPacmanAte;
+    public void setGoldPacmanAte(int cellId) {
+        int gold = golds.getGold(cellId);
+        if (gold != NO_GOLD) Bitsets.set(goldPacmanAte, 0, gold);
+    }
+
+    /**
+     * Check whether Orion is at the location of a specified gold piece.
+     * @param gold index of the gold piece
+     * @return     true if Orion is at its location, false if otherwise
+     */
+    private boolean isAtGold(int gold) {
+        return golds.getCell(gold) == getManager().getGame().getGrid().getCellId(getX(), getY());
+    }
+
+    /**
+     * Get the gold piece at Orion's location.
+     * @return index of the gold piece, or <code>NO_GOLD</code> if there is none
+     */
+    private int getGoldHere() {
+        return golds.getGold(getManager().getGame().getGrid().getCellId(getX(), getY()));
     }
 
 
@@ -65,72 +93,72 @@ public class Orion extends Monster {
         Location finalLoc = null;  // This checks if we can move anywhere
 
         // If already at destination or destination is null, find a new destination to walk to
-        if (this.currDestination != null &&
-                this.currDestination.location().getX() == this.getLocation().getX() &&
-                this.currDestination.location().getY() == this.getLocation().getY())
-        {
+        if (this.currDestination != NO_GOLD && this.isAtGold(this.currDestination)) {
             this.hasDestination = false;
-            this.goldVisited.put(this.currDestination, true);
+            if (Bitsets.set(this.goldVisited, 0, this.currDestination))
+                this.numGoldVisited++;
 
-            // After Orion finishes walk cycle, reset its cycle by setting all goldLocations values to false
-            if (this.checkIfAllVisited(new ArrayList<>(this.goldVisited.keySet())))
-                goldVisited.replaceAll((l, v) -> false);
+            // After Orion finishes walk cycle, reset its cycle by clearing every visited gold piece
+            if (this.checkIfAllVisited()) {
+                Arrays.fill(this.goldVisited, 0L);
+                this.numGoldVisited = 0;
+            }
         }
         if (!hasDestination) this.findNewGold();
 
         // Now we go towards the direction of this new location
-        Location orionLocation = this.getLocation();
+        PacManGameGrid grid = this.getManager().getGame().getGrid();
+        int destinationX = grid.getCellX(this.golds.getCell(this.currDestination));
+        int destinationY = grid.getCellY(this.golds.getCell(this.currDestination));
 
         // Orion monster can only go vertically and horizontally (doesn't fly)
         // Want to go towards direction where distance to gold is minimized
         int minDistance = Integer.MAX_VALUE;
-        ArrayList<Location> possibleLocations = new ArrayList<>();
-        for (Location.CompassDirection dir : Location.CompassDirection.values()) {
-            if (dir.getDirection()%CHECK_NON_DIAGONAL == NON_DIAGONAL) {
-                Location currLocation = orionLocation.getAdjacentLocation(dir.getDirection(), stepSize);
-                int distanceToGold = currLocation.getDistanceTo(this.currDestination.location());
+        int numPossible = 0;
+        for (int dir = 0; dir < Compass.NUM_DIRECTIONS; dir++) {
+            int directionValue = Compass.getDirectionValue(dir);
+            if (directionValue%CHECK_NON_DIAGONAL == NON_DIAGONAL) {
+                int x = this.getX() + Compass.getOffsetX(dir, stepSize);
+                int y = this.getY() + Compass.getOffsetY(dir, stepSize);
+                int distanceToGold = Compass.getDistance(x, y, destinationX, destinationY);
 
                 // Track visited locations with visited list to prevent going to same 2 locations repeatedly
-                if (this.canMove(dir.getDirection(), stepSize) &&
-                    this.notVisited(currLocation) && distanceToGold <= minDistance)
+                if (this.canMove(directionValue, stepSize) &&
+                    this.notVisited(x, y) && distanceToGold <= minDistance)
                 {
                     // Keep track of all possible tying directions
                     if (distanceToGold < minDistance) {
                         minDistance = distanceToGold;
-                        possibleLocations = new ArrayList<>();
+                        numPossible = 0;
                     }
-                    possibleLocations.add(currLocation);
+                    this.possibleDirections[numPossible++] = dir;
                 }
             }
         }
 
         // In case every move has been visited already, just find the immediate place you can move to
-        if (possibleLocations.isEmpty()) {
-            Location.CompassDirection[] possibleDirections = Location.CompassDirection.values();
-            ArrayList<Integer> directionValues = new ArrayList<>();
-            for (Location.CompassDirection dir : possibleDirections) {
-                directionValues.add(dir.getDirection());
-            }
+        if (numPossible == 0) {
+            int numDirections = Compass.fillDirections(this.directions);
 
             // Keep randomly selecting directions and getting corresponding location
             // until you find a movable location, or you go through the whole list
-            while(!directionValues.isEmpty()) {
-                int currIndex = this.getRandomizer().nextInt(LIST_START, directionValues.size());
-                int currentDir = directionValues.get(currIndex);
-                Location newLocation = this.getLocation().getAdjacentLocation(currentDir, stepSize);
+            while (numDirections > 0) {
+                int currIndex = this.getRandomizer().nextInt(LIST_START, numDirections);
+                int currentDir = Compass.getDirectionValue(this.directions[currIndex]);
                 if (this.canMove(currentDir, stepSize) && currentDir%CHECK_NON_DIAGONAL == NON_DIAGONAL) {
-                    finalLoc = newLocation;
+                    finalLoc = this.getAdjacentLocation(currentDir, stepSize);
                     break;
                 }
-                directionValues.remove(currIndex);
+                numDirections = Compass.removeDirection(this.directions, currIndex, numDirections);
             }
         }
 
         // There may be more than one unvisited location that minimizes distance
         // to a gold, randomly select from these options
         else {
-            int randomIndex = this.getRandomizer().nextInt(LIST_START, possibleLocations.size());
-            finalLoc = possibleLocations.get(randomIndex);
+            int randomIndex = this.getRandomizer().nextInt(LIST_START, numPossible);
+            finalLoc = this.getAdjacentLocation(Compass.getDirectionValue(this.possibleDirections[randomIndex]),
+                                                stepSize);
         }
 
         // Now when the move has been decided, can move Orion to the desired piece
@@ -143,77 +171,57 @@ public class Orion extends Monster {
      * Helper method for moveApproach that decides the next gold piece location Orion moves to.
      */
     private void findNewGold() {
-        // keep track of the gold pieces that have and have not been visited
-        HashMap<HashableLocation, Boolean> notTaken = new HashMap<>();
-        for (HashableLocation loc : this.goldPacmanAte.keySet())
-            // Prioritize un-eaten gold
-            if (!this.goldVisited.get(loc))
-                HashableLocation.putLocationHash(notTaken, loc.location(), true);
-
-        // If there are still golds pacman hasn't eaten yet and Orion hasn't visited
-        ArrayList<HashableLocation> goldsToIterate = new ArrayList<>(notTaken.keySet());
-
-        // Otherwise randomly check from all possible gold locations
-        if (goldsToIterate.isEmpty() || this.checkIfAllVisited(goldsToIterate)) {
-            goldsToIterate = new ArrayList<>(this.goldVisited.keySet());
-        }
-
-        // randomly pick which gold to go to, and set new location
-        HashableLocation newLocation = this.getRandomLocation(goldsToIterate);
+        // randomly pick which gold to go to, among those that have not been visited; since a walk cycle
+        // is reset once every gold piece has been visited, there is always at least one of them
+        int newGold = this.getRandomGold();
         this.hasDestination = true;
-        this.currDestination = newLocation;
+        this.currDestination = newGold;
     }
 
     /**
-     * This method initializes 2 key maps needed for Orion:
+     * This method initializes the gold piece arrays needed for Orion, indexed by gold piece:
      * <ul>
-     *     <li>goldLocations: gold piece locations visited for each walking cycle;
+     *     <li>golds: order of the gold pieces, in which Orion used to iterate over its hash map of them;
+     *     <li>goldVisited: gold pieces visited for each walking cycle;
      *     <li>goldPacmanAte: gold pieces Pacman ate already
      * </ul>
      */
     private void makeGoldMaps() {
-        for (HashableLocation loc: this.getManager().getItems().keySet()) {
-            if (this.getManager().getItems().get(loc) instanceof Gold) {
-                this.goldVisited.put(loc, false);
-                this.goldPacmanAte.put(loc, false);
-            }
-        }
+        this.golds = new GoldOrder(this.getManager());
+        this.bucketCounts = new int[golds.getMapCapacity()];
+        this.goldVisited = new long[Bitsets.getNumWords(golds.size())];
+        this.goldPacmanAte = new long[Bitsets.getNumWords(golds.size())];
     }
 
 
     /**
-     * Check if a given list of gold piece locations have been visited by Orion already for a given walk cycle
-     * @param golds List of a number (not necessarily all) gold piece locations
-     * @return      boolean indicating if all golds in list were visited already
-     * @see         HashableLocation
+     * Check if all gold pieces have been visited by Orion already for a given walk cycle
+     * @return boolean indicating if all golds were visited already
      */
-    private boolean checkIfAllVisited(ArrayList<HashableLocation> golds) {
-        for (HashableLocation loc : golds)
-            if (!this.goldVisited.get(loc))
-                return false;
-        return true;
+    private boolean checkIfAllVisited() {
+        return this.numGoldVisited == this.golds.size();
     }
 
 
     /**
-     * Randomly pick a gold location from a given list of gold locations that IS NOT YET VISITED in Orion's
-     * walk cycle. To do this, it creates a new list of specific gold pieces where none of said pieces have
-     * been visited within a cycle, or is in the same location as the Orion in question.
-     * @param golds List of a number (not necessarily all) gold piece locations
-     * @return      Random location from list of gold locations
-     * @see         HashableLocation
+     * Randomly pick a gold piece that IS NOT YET VISITED in Orion's walk cycle. To do this, it counts the
+     * gold pieces where none of said pieces have been visited within a cycle, or is in the same location
+     * as the Orion in question, then picks one of them in the order Orion used to put them to a new hash map
+     * of unvisited gold pieces. Should the only unvisited gold piece be where Orion is, it is picked
+     * nonetheless. The count is kept as Orion visits gold pieces, and the pick skips over whole words of
+     * visited gold pieces at a time.
+     * @return index of a random gold piece
      */
-    private HashableLocation getRandomLocation(ArrayList<HashableLocation> golds) {
-        ArrayList<HashableLocation> goldsToCheck = new ArrayList<>();
-        for (HashableLocation loc : golds)
-            if (! this.goldVisited.get(loc) &&
-                (loc.getX() != this.getLocation().getX() || loc.getY() != this.getLocation().getY()))
-            {
-                goldsToCheck.add(loc);
-            }
-
-        // Now return a random location from this new list
-        int randomIndex = this.getRandomizer().nextInt(LIST_START, goldsToCheck.size());
-        return goldsToCheck.get(randomIndex);
+    private int getRandomGold() {
+        int numGolds = this.golds.size() - this.numGoldVisited;
+        int goldHere = this.getGoldHere();
+        if (goldHere != NO_GOLD && Bitsets.get(this.goldVisited, 0, goldHere))
+            goldHere = NO_GOLD;
+        boolean excludeCurrent = goldHere != NO_GOLD && numGolds > 1;
+
+        // Now return a random gold piece from these, skipping the one here by taking the next one instead
+        int randomIndex = this.getRandomizer().nextInt(LIST_START, excludeCurrent ? numGolds - 1 : numGolds);
+        return this.golds.selectUnvisited(this.goldVisited, 0, numGolds, randomIndex,
+                                          excludeCurrent ? goldHere : NO_GOLD, this.bucketCounts);
     }
 }
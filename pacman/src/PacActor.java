@@ -2,6 +2,7 @@ package src;
 import ch.aplu.jgamegrid.*;
 import src.utility.PropertiesLoader;
 
+import java.awt.GraphicsEnvironment;
 import java.awt.event.KeyEvent;
 import java.util.*;
 
@@ -41,6 +42,14 @@ public class PacActor extends LiveActor implements GGKeyRepeatListener {
         setName(PACMAN_NAME);
     }
 
+    /**
+     * Get PacMan's current score.
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
     /**
      * Set whether PacMan runs in auto mode or player mode.
      * @param auto true if PacMan runs in auto mode, false if otherwise
@@ -55,7 +64,7 @@ public class PacActor extends LiveActor implements GGKeyRepeatListener {
      */
     @Override
     protected void setSeed(int seed) {
-        getRandomizer().setSeed(seed);
+        setRandomizer(new Random(seed));
     }
 
     /**
@@ -75,7 +84,7 @@ public class PacActor extends LiveActor implements GGKeyRepeatListener {
     @Override
     public void keyRepeated(int keyCode) {
         if (isAuto) return;
-        if (isRemoved())  // Already removed
+        if (isRemoved() || getManager().hasGameEnded())  // Already removed, or about to be
             return;
         Location next = null;
         switch (keyCode) {
@@ -108,13 +117,14 @@ public class PacActor extends LiveActor implements GGKeyRepeatListener {
      */
     @Override
     public void act() {
+        if (getManager().hasGameEnded()) return;
         show(idSprite);
         idSprite++;
         if (idSprite == NUM_SPRITES)
             idSprite = 0;
         if (isAuto)
             moveApproach();
-        getGameCallback().pacManLocationChanged(getLocation(), score, nbPills);
+        getGameCallback().pacManLocationChanged(getX(), getY(), score, nbPills);
     }
 
     /**
@@ -128,32 +138,25 @@ public class PacActor extends LiveActor implements GGKeyRepeatListener {
             followPropertyMoves();
             return;
         }
-        Location closestPill = closestPillLocation();
+        int closestPill = closestPillCell();
+        assert closestPill != CellMap.NO_CELL;
+        PacManGameGrid grid = getManager().getGame().getGrid();
         double oldDirection = getDirection();
-        Location.CompassDirection compassDir = getLocation().get4CompassDirectionTo(closestPill);
-        Location next = getLocation().getNeighbourLocation(compassDir);
-        setDirection(compassDir);
+        int compassDir = Compass.get4CompassDirection(getX(), getY(),
+                                                      grid.getCellX(closestPill), grid.getCellY(closestPill));
+        Location next = getNextLocation(getX() + Compass.getOffsetX(compassDir, NORMAL_STEP_SIZE),
+                                        getY() + Compass.getOffsetY(compassDir, NORMAL_STEP_SIZE));
+        setDirection(Compass.DIRECTIONS[compassDir]);
         if (notVisited(next) && canMove(next))
             setLocation(next);
         else {
             int sign = getRandomizer().nextDouble() < 0.5 ? 1 : -1;
+            // Try to turn left/right, else to move forward, else to turn right/left, else turn backward
+            int decision = TurnTable.decide(getOpenDirections(NORMAL_STEP_SIZE), Compass.indexOf(oldDirection),
+                                            sign);
             setDirection(oldDirection);
-            turn(sign * RIGHT_TURN_ANGLE); // Try to turn left/right
-            next = getNextMoveLocation();
-            if (! canMove(next)) {
-                setDirection(oldDirection);
-                next = getNextMoveLocation(); // Try to move forward
-                if (! canMove(next)) {
-                    setDirection(oldDirection);
-                    turn(sign * LEFT_TURN_ANGLE); // Try to turn right/left
-                    next = getNextMoveLocation();
-                    if (! canMove(next)) {
-                        setDirection(oldDirection);
-                        turn(BACK_TURN_ANGLE); // Turn backward
-                        next = getNextMoveLocation();
-                    }
-                }
-            }
+            turn(TurnTable.getTurnAngle(decision));
+            next = getAdjacentLocation(getDirection(), NORMAL_STEP_SIZE);
             setLocation(next);
         }
         eatItem(getManager());
@@ -162,17 +165,17 @@ public class PacActor extends LiveActor implements GGKeyRepeatListener {
 
     /**
      * Method for handling PacMan eating an item. Each item will have a different effect upon acquired, and
-     * this method will handle that as well.
+     * this method will handle that as well. Called after every move of PacMan, it first checks whether PacMan
+     * has moved into a monster, which is over before PacMan can eat anything there.
      * @param manager object manager
      */
     private void eatItem(ObjectManager manager) {
-        Location location = getLocation();
-        HashableLocation hashLocation = new HashableLocation(location);
+        manager.checkCollision(this);
+        int cell = manager.getGame().getGrid().getCellId(getX(), getY());
+        Item item = manager.getItem(cell);
 
         // item exists
-        if (manager.getItems().containsKey(hashLocation)) {
-            Item item = manager.getItems().get(hashLocation);
-
+        if (item != null) {
             // add score (WIP - this shouldn't even be in here)
             if (! (item instanceof Ice)) nbPills++;
             score += item.getScore();
@@ -180,45 +183,35 @@ public class PacActor extends LiveActor implements GGKeyRepeatListener {
 
             // signals the manager and removes itself
             item.signalManager(manager);
-            getBackground().fillCell(location, Game.COLOR_SPACE);
-            getGameCallback().pacManEatPillsAndItems(location, item.getName());
-            item.removeItem(manager);
+            // nothing is ever displayed without a display, so the eaten item's cell is only painted over with one
+            if (! GraphicsEnvironment.isHeadless())
+                getBackground().fillCell(getLocation(), Game.COLOR_SPACE);
+            getGameCallback().pacManEatPillsAndItems(getX(), getY(), item.getName());
+            item.removeItem(manager, cell);
         }
-        String title = "[PacMan in the Multiverse] Current score: " + score;
-        getGameGrid().setTitle(title);
     }
 
     /**
-     * Game over checking - whether PacMan has collided with a monster or not.
+     * Game over checking - whether PacMan has collided with a monster or not, viz. whether PacMan's cell is
+     * occupied by any monster.
      * @return true if collided, false if otherwise.
+     * @see    OccupancyGrid
      */
     public boolean collideMonster() {
-        for (Monster monster : getManager().getMonsters())
-            if (actorCollide(monster))
-                return true;
-        return false;
+        return getManager().getOccupancyGrid().isOccupied(getX(), getY());
     }
 
     /**
-     * Get the closest location of an item that is either a pill or gold. Used only when in auto mode.
-     * @return said closest location
+     * Get the cell of the closest item that is either a pill or gold. Used only when in auto mode.
+     * Items are compared by their rounded distance to PacMan, as with <code>Location.getDistanceTo</code>.
+     * Ties are broken as when the items were kept in a hash map keyed by their locations: in favor of the
+     * item in the smallest bucket of that map, then of the first in row-major order within the bucket.
+     * @return said closest cell id, or <code>CellMap.NO_CELL</code> if there is none
      * @see    Location
+     * @see    EdibleIndex
      */
-    private Location closestPillLocation() {
-        int currentDistance = getManager().getGame().getGrid().INF; // set distance to infinity
-        Location currentLocation = null;
-        for (Map.Entry<HashableLocation, Item> entry : getManager().getItems().entrySet()) {
-            Item item = entry.getValue();
-            if (item instanceof Pill || item instanceof Gold) {
-                Location location = entry.getKey().location();
-                int distanceToPill = location.getDistanceTo(getLocation());
-                if (distanceToPill < currentDistance) {
-                    currentLocation = location;
-                    currentDistance = distanceToPill;
-                }
-            }
-        }
-        return currentLocation;
+    private int closestPillCell() {
+        return getManager().getEdibleIndex().findClosest(getX(), getY());
     }
 
     /**
@@ -1,12 +1,52 @@
 package src;
 import ch.aplu.jgamegrid.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 
 /**
  * PacManGameGrid class representing the game grid, which primarily deals with visualizing inanimate objects
  * on the grid via enumerated identification.
+ * <p>
+ * The grid is either the default maze, or a maze of any size loaded from a maze file. A maze file has one
+ * line per row of the grid, where each character is a cell, using the same characters as the default maze
+ * (see <code>InanimateActor.BlockType</code>); every row must have as many cells as the first one.
  */
 public class PacManGameGrid {
+    // dimensions of the default maze
+    public static final int DEFAULT_NUM_HORIZONTAL_CELLS = 20;
+    public static final int DEFAULT_NUM_VERTICAL_CELLS = 11;
+    // default maze
+    private static final String DEFAULT_MAZE =
+                    "xxxxxxxxxxxxxxxxxxxx" + // 0
+                    "x....x....g...x....x" + // 1
+                    "xgxx.x.xxxxxx.x.xx.x" + // 2
+                    "x.x.......i.g....x.x" + // 3
+                    "x.x.xx.xx  xx.xx.x.x" + // 4
+                    "x......x    x......x" + // 5
+                    "x.x.xx.xxxxxx.xx.x.x" + // 6
+                    "x.x......gi......x.x" + // 7
+                    "xixx.x.xxxxxx.x.xx.x" + // 8
+                    "x...gx....g...x....x" + // 9
+                    "xxxxxxxxxxxxxxxxxxxx";  // 10
+
+    // maze file parsing constants
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    // block types, indexed by their ordinal, and the ordinal of the block type of every character
+    private static final InanimateActor.BlockType[] BLOCK_TYPES = InanimateActor.BlockType.values();
+    private static final byte[] BLOCK_OF_CHAR = new byte[1 << Byte.SIZE];
+    static {
+        Arrays.fill(BLOCK_OF_CHAR, (byte) InanimateActor.BlockType.ERROR.ordinal());
+        for (InanimateActor.BlockType blockType : BLOCK_TYPES)
+            if (blockType != InanimateActor.BlockType.ERROR)
+                BLOCK_OF_CHAR[blockType.BLOCK_CHAR] = (byte) blockType.ordinal();
+    }
+
     // grid constants
     private final int X_LEFT;
     private final int Y_TOP;
@@ -19,45 +59,60 @@ public class PacManGameGrid {
     private final int numHorizontalCells;
     // number of vertical cells of the grid
     private final int numVerticalCells;
-    // the grid data structure, represented by a 2-dimensional array of blocks
-    private final InanimateActor.BlockType[][] mazeArray;
+    // the grid data structure, represented by the ordinal of the block type of every cell in row-major order
+    private final byte[] mazeArray;
+
+
+    /**
+     * PacManGameGrid constructor, for the default maze.
+     */
+    public PacManGameGrid() {
+        this(DEFAULT_NUM_HORIZONTAL_CELLS, DEFAULT_NUM_VERTICAL_CELLS, new byte[DEFAULT_MAZE.length()]);
 
+        // Copy structure into array
+        for (int i = 0; i < mazeArray.length; i++)
+            mazeArray[i] = BLOCK_OF_CHAR[DEFAULT_MAZE.charAt(i)];
+    }
 
     /**
      * PacManGameGrid constructor.
      * @param numHorizontalCells the number of horizontal cells of the grid
      * @param numVerticalCells   the number of vertical cells of the grid
+     * @param mazeArray          the block type ordinal of every cell in row-major order
      */
-    public PacManGameGrid(int numHorizontalCells, int numVerticalCells) {
+    private PacManGameGrid(int numHorizontalCells, int numVerticalCells, byte[] mazeArray) {
+        assert mazeArray.length >= numHorizontalCells * numVerticalCells;
         this.numHorizontalCells = numHorizontalCells;
         this.numVerticalCells = numVerticalCells;
         this.INF = numHorizontalCells + numVerticalCells;
+        this.mazeArray = mazeArray;
 
         // Setup grid border
         X_LEFT   = 0;
         Y_TOP    = 0;
         X_RIGHT  = numHorizontalCells;
         Y_BOTTOM = numVerticalCells;
-        mazeArray = new InanimateActor.BlockType[numVerticalCells][numHorizontalCells];
-        String maze =
-                        "xxxxxxxxxxxxxxxxxxxx" + // 0
-                        "x....x....g...x....x" + // 1
-                        "xgxx.x.xxxxxx.x.xx.x" + // 2
-                        "x.x.......i.g....x.x" + // 3
-                        "x.x.xx.xx  xx.xx.x.x" + // 4
-                        "x......x    x......x" + // 5
-                        "x.x.xx.xxxxxx.xx.x.x" + // 6
-                        "x.x......gi......x.x" + // 7
-                        "xixx.x.xxxxxx.x.xx.x" + // 8
-                        "x...gx....g...x....x" + // 9
-                        "xxxxxxxxxxxxxxxxxxxx";  // 10
-
-        // Copy structure into integer array
-        for (int i = 0; i < numVerticalCells; i++)
-            for (int k = 0; k < numHorizontalCells; k++) {
-                InanimateActor.BlockType value = toType(maze.charAt(numHorizontalCells * i + k));
-                mazeArray[i][k] = value;
-            }
+    }
+
+    /**
+     * Load a maze from a specified maze file. The file is parsed in a single pass straight into the grid's
+     * array, without holding any of its lines as strings, so that even mazes of millions of cells load fast.
+     * @param path path of the maze file
+     * @return     the loaded grid
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the maze has no cells, or its rows are not all of the same width
+     */
+    public static PacManGameGrid loadMaze(String path) throws IOException {
+        Path mazePath = Path.of(path);
+        // the file has at least a byte per cell, so its size bounds the number of cells
+        MazeParser parser = new MazeParser(path, (int) Math.min(Files.size(mazePath), Integer.MAX_VALUE - 1));
+        try (InputStream input = Files.newInputStream(mazePath)) {
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int numRead;
+            while ((numRead = input.read(buffer)) > 0)
+                parser.parse(buffer, numRead);
+        }
+        return parser.toGrid();
     }
 
     /**
@@ -67,7 +122,17 @@ public class PacManGameGrid {
      * @see            Location
      */
     public InanimateActor.BlockType getCell(Location location) {
-        return mazeArray[location.y][location.x];
+        return getCell(location.x, location.y);
+    }
+
+    /**
+     * Get the block type from a specified cell.
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return  the block type of said cell
+     */
+    public InanimateActor.BlockType getCell(int x, int y) {
+        return BLOCK_TYPES[mazeArray[getCellId(x, y)]];
     }
 
     /**
@@ -78,7 +143,7 @@ public class PacManGameGrid {
      * @see            InanimateActor
      */
     protected void setCell(Location location, InanimateActor.BlockType value) {
-        mazeArray[location.x][location.y] = value;
+        mazeArray[getCellId(location.x, location.y)] = (byte) value.ordinal();
     }
 
     /**
@@ -98,12 +163,60 @@ public class PacManGameGrid {
     }
 
     /**
-     * Get the grid itself, represented by a 2-dimensional array.
-     * @return the grid
-     * @see    InanimateActor
+     * Get the number of cells of the grid, which is also the upper bound (exclusive) of all cell ids.
+     * @return the number of cells
+     */
+    public int getNumCells() {
+        return numHorizontalCells * numVerticalCells;
+    }
+
+    /**
+     * Get the cell id of a specified cell. A cell id packs both coordinates into a single integer in
+     * row-major order, viz. <code>y * width + x</code>, so that cells can key arrays and bitsets directly.
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return  the cell id
+     */
+    public int getCellId(int x, int y) {
+        return y * numHorizontalCells + x;
+    }
+
+    /**
+     * Get the cell id of a specified location.
+     * @param location the specified location
+     * @return         the cell id
+     * @see            Location
+     */
+    public int getCellId(Location location) {
+        return getCellId(location.x, location.y);
+    }
+
+    /**
+     * Get the x-coordinate of a specified cell id.
+     * @param cellId the cell id
+     * @return       x-coordinate of the cell
+     */
+    public int getCellX(int cellId) {
+        return cellId % numHorizontalCells;
+    }
+
+    /**
+     * Get the y-coordinate of a specified cell id.
+     * @param cellId the cell id
+     * @return       y-coordinate of the cell
      */
-    protected InanimateActor.BlockType[][] getMazeArray() {
-        return mazeArray;
+    public int getCellY(int cellId) {
+        return cellId / numHorizontalCells;
+    }
+
+    /**
+     * Get the location of a specified cell id.
+     * @param cellId the cell id
+     * @return       the location
+     * @see          Location
+     */
+    public Location getCellLocation(int cellId) {
+        return new Location(getCellX(cellId), getCellY(cellId));
     }
 
     /**
@@ -138,18 +251,78 @@ public class PacManGameGrid {
         return Y_BOTTOM;
     }
 
+
     /**
-     * Convert a maze string where each cell is represented by a character, to its corresponding block type.
-     * @param c cell character
-     * @return  its block type
-     * @see     InanimateActor
+     * MazeParser class parsing a maze file chunk by chunk into the block type ordinal of every cell. Rows
+     * are separated by line feeds, and carriage returns are ignored; empty rows are only allowed at the end
+     * of the file.
      */
-    private InanimateActor.BlockType toType(char c) {
-        if (c == InanimateActor.BlockType.WALL.BLOCK_CHAR ) return InanimateActor.BlockType.WALL ;
-        if (c == InanimateActor.BlockType.PILL.BLOCK_CHAR ) return InanimateActor.BlockType.PILL ;
-        if (c == InanimateActor.BlockType.GOLD.BLOCK_CHAR ) return InanimateActor.BlockType.GOLD ;
-        if (c == InanimateActor.BlockType.ICE.BLOCK_CHAR  ) return InanimateActor.BlockType.ICE  ;
-        if (c == InanimateActor.BlockType.SPACE.BLOCK_CHAR) return InanimateActor.BlockType.SPACE;
-        else return InanimateActor.BlockType.ERROR;
+    private static class MazeParser {
+        private final String path;
+        private byte[] cells;
+        private int numCells = 0;
+        private int width = -1;
+        private int rowStart = 0;
+        private int numRows = 0;
+        private int firstEmptyRow = -1;
+
+        /**
+         * MazeParser constructor.
+         * @param path             path of the maze file, for error messages
+         * @param expectedNumCells expected number of cells, which the parser can grow beyond if needed
+         */
+        private MazeParser(String path, int expectedNumCells) {
+            this.path = path;
+            this.cells = new byte[Math.max(expectedNumCells, 1)];
+        }
+
+        /**
+         * Parse a chunk of the maze file.
+         * @param buffer   the chunk
+         * @param numBytes number of bytes of the chunk
+         */
+        private void parse(byte[] buffer, int numBytes) {
+            for (int i = 0; i < numBytes; i++) {
+                byte c = buffer[i];
+                if (c == LINE_FEED)
+                    endRow();
+                else if (c != CARRIAGE_RETURN) {
+                    if (numCells == cells.length) cells = Arrays.copyOf(cells, 2 * cells.length);
+                    cells[numCells++] = BLOCK_OF_CHAR[c & 0xff];
+                }
+            }
+        }
+
+        /**
+         * End the current row, checking that it is as wide as the rows before it.
+         * @throws IllegalArgumentException if the row's width differs, or it follows an empty row
+         */
+        private void endRow() {
+            int rowWidth = numCells - rowStart;
+            if (rowWidth == 0) {
+                if (firstEmptyRow < 0) firstEmptyRow = numRows;
+            }
+            else if (firstEmptyRow >= 0)
+                throw new IllegalArgumentException("Maze file " + path + ": row " + firstEmptyRow + " is empty");
+            else if (width < 0)
+                width = rowWidth;
+            else if (rowWidth != width)
+                throw new IllegalArgumentException("Maze file " + path + ": row " + numRows + " has " + rowWidth +
+                        " cells instead of " + width);
+            rowStart = numCells;
+            numRows++;
+        }
+
+        /**
+         * Finish parsing, where the last row may not end with a line feed.
+         * @return the parsed grid
+         * @throws IllegalArgumentException if the maze has no cells, or its last row's width differs
+         */
+        private PacManGameGrid toGrid() {
+            if (numCells > rowStart) endRow();
+            if (width <= 0)
+                throw new IllegalArgumentException("Maze file " + path + " has no cells");
+            return new PacManGameGrid(width, numCells / width, cells);
+        }
     }
 }
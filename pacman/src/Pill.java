@@ -7,6 +7,11 @@ import java.awt.*;
 /**
  * Pill class extended from abstract Item class. Item is required to be eaten by pacman, but doesn't have
  * any particular effect other than increasing the points in the game.
+ * <p>
+ * Pills are never shown as actors, so they only exist as grid data: the object manager keeps the cells
+ * holding a pill, and a single pill stands for all of them. Putting it to the game merely draws it onto the
+ * background of a cell, and eating it clears the cell. This keeps setting up a level proportional to the
+ * size of its maze, rather than to its number of pills, and keeps pills out of the game grid's actors.
  * @see Item
  */
 public class Pill extends Item {
@@ -26,10 +31,11 @@ public class Pill extends Item {
     }
 
     /**
-     * Overridden putItem method, where ice puts itself to the game.
+     * Overridden putItem method, where pill draws itself onto the background of a cell. It is not added
+     * to the game as an actor, since it is shared by every cell holding a pill.
      * @param bg        background of game grid
      * @param game      the game
-     * @param location  the current gold item's location
+     * @param location  the location of the cell holding the pill
      * @see             GGBackground
      * @see             Game
      * @see             Location
@@ -38,8 +44,18 @@ public class Pill extends Item {
     public void putActor(GGBackground bg, Game game, Location location) {
         bg.setPaintColor(Color.white);
         bg.fillCircle(game.toPoint(location), RADIUS);
-        game.addActor(this, location);
-        hide();
+    }
+
+    /**
+     * Overridden method to remove the pill of a cell; used when it is eaten by PacMan. Only the cell is
+     * cleared, since the pill is not an actor of the game.
+     * @param manager object manager
+     * @param cell    cell id of the pill
+     */
+    @Override
+    protected void removeItem(ObjectManager manager, int cell) {
+        manager.getPills().remove(cell);
+        manager.getEdibleIndex().remove(cell);
     }
 
     /**
@@ -50,4 +66,4 @@ public class Pill extends Item {
     protected void signalManager(ObjectManager manager) {
         // do nothing
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,170 @@
+package src;
+import src.utility.GameCallback;
+import src.utility.PropertiesLoader;
+import ch.aplu.jgamegrid.Location;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+
+/**
+ * RegressionTest class checking behaviour of the game which optimizations must not change, such as loading
+ * mazes of any size or moving actors without allocating. Each check fails by throwing an AssertionError,
+ * which names what was expected; the checks are run in turn, and the first failing one ends the run. Every
+ * game is headless, so the checks should be run with the system property <code>java.awt.headless</code> set
+ * to true.
+ * @see HeadlessGame
+ */
+public class RegressionTest {
+    // sizes of the non-square mazes checked, in number of stock mazes across and down
+    private static final String[] NON_SQUARE_MAZE_SIZES = {"3x1", "1x3"};
+    // bottom right walkable cell of the stock maze, which is a pill
+    private static final int CORNER_X = PacManGameGrid.DEFAULT_NUM_HORIZONTAL_CELLS - 2;
+    private static final int CORNER_Y = PacManGameGrid.DEFAULT_NUM_VERTICAL_CELLS - 2;
+    // walkable cell of the stock maze, where PacMan is put in every checked game
+    private static final String PACMAN_LOCATION = "1,1";
+    // operations of the movement benchmark which must not allocate, and how often they are run
+    private static final String[] ALLOCATION_FREE_OPERATIONS = {
+            "Troll.nextMonsterLocation", "TX5.nextMonsterLocation", "Alien.nextMonsterLocation",
+            "Orion.nextMonsterLocation", "Wizard.nextMonsterLocation", "PacActor.moveApproach"};
+    private static final String ALLOCATION_MAZE_SIZE = "5x5";
+    private static final int ALLOCATION_WARMUP_OPS = 10000;
+    private static final int ALLOCATION_MEASURED_OPS = 50000;
+    private static final int ALLOCATION_RUNS = 5;
+    // location outside of the maze which monsters are put to, and how long their games may run for
+    private static final String OFF_GRID_LOCATION = "-1,-1";
+    private static final int OFF_GRID_MAX_TICKS = 1000;
+
+    /**
+     * Run every check, and print the name of each check once it has passed.
+     * @throws IOException if a maze file cannot be written
+     */
+    public void runAll() throws IOException {
+        for (String mazeSize : NON_SQUARE_MAZE_SIZES)
+            checkNonSquareMaze(GeneratedMaze.parse(mazeSize));
+        checkOffGridMonsters(false);
+        checkOffGridMonsters(true);
+        checkAllocationFree(null, new GeneratedMaze(1, 1));
+        GeneratedMaze maze = GeneratedMaze.parse(ALLOCATION_MAZE_SIZE);
+        Path mazePath = maze.write();
+        try {
+            checkAllocationFree(mazePath.toString(), maze);
+        } finally {
+            Files.deleteIfExists(mazePath);
+        }
+        System.out.println("all checks passed");
+    }
+
+    /**
+     * Check that a non-square maze is loaded cell by cell as it was written, and that an item placed by the
+     * properties in the far corner of the maze is put to the cell at its location.
+     * @param maze the maze, which must not be square
+     * @throws IOException if the maze file cannot be written
+     */
+    private void checkNonSquareMaze(GeneratedMaze maze) throws IOException {
+        assert maze.getWidth() != maze.getHeight();
+        Path mazePath = maze.write();
+        try {
+            PacManGameGrid stockGrid = new PacManGameGrid();
+            PacManGameGrid grid = PacManGameGrid.loadMaze(mazePath.toString());
+            check(grid.getNumHorizontalCells() == maze.getWidth() &&
+                  grid.getNumVerticalCells() == maze.getHeight(), maze + " is loaded with its size");
+            for (int tileY = 0; tileY < maze.getTilesDown(); tileY++)
+                for (int tileX = 0; tileX < maze.getTilesAcross(); tileX++)
+                    for (int y = 1; y < PacManGameGrid.DEFAULT_NUM_VERTICAL_CELLS - 1; y++)
+                        for (int x = 1; x < PacManGameGrid.DEFAULT_NUM_HORIZONTAL_CELLS - 1; x++)
+                            check(grid.getCell(GeneratedMaze.getCellX(tileX, x), GeneratedMaze.getCellY(tileY, y))
+                                    == stockGrid.getCell(x, y), maze + " has the cells of the stock maze");
+
+            // place ice over the pill in the bottom right of the last copy of the stock maze
+            Location corner = new Location(GeneratedMaze.getCellX(maze.getTilesAcross() - 1, CORNER_X),
+                                           GeneratedMaze.getCellY(maze.getTilesDown() - 1, CORNER_Y));
+            Properties properties = Benchmark.createProperties(mazePath.toString(), PACMAN_LOCATION);
+            properties.setProperty("Ice", corner.x + "," + corner.y);
+            HeadlessGame game = new HeadlessGame(properties, new GameCallback(Writer.nullWriter()),
+                    HeadlessGame.DEFAULT_MAX_TICKS);
+            check(game.getGrid().getCell(corner) == InanimateActor.BlockType.ICE,
+                    maze + " has the ice placed at " + corner);
+            check(game.getManager().getItems().get(game.getGrid().getCellId(corner)) instanceof Ice,
+                    maze + " has the ice item at " + corner);
+        } finally {
+            Files.deleteIfExists(mazePath);
+        }
+        System.out.println("non-square " + maze + ": passed");
+    }
+
+    /**
+     * Check that monsters put outside of the maze by the properties can still move, as they could when they
+     * checked every move against the walkability grid, so that their game runs until it ends.
+     * @param isSwarm whether the monsters are kept in a monster swarm instead of as actors
+     * @throws IOException if the maze file cannot be written
+     * @see            MazeGraph
+     */
+    private void checkOffGridMonsters(boolean isSwarm) throws IOException {
+        String mode = isSwarm ? "swarm" : "actors";
+        Path mazePath = new GeneratedMaze(1, 1).write();
+        try {
+            Properties properties = Benchmark.createProperties(mazePath.toString(), PACMAN_LOCATION);
+            properties.setProperty(PropertiesLoader.SWARM_PROPERTY, Boolean.toString(isSwarm));
+            for (Monster.MonsterType type : Monster.MonsterType.values())
+                properties.setProperty(type + PropertiesLoader.LOCATION_EXTENSION, OFF_GRID_LOCATION);
+            HeadlessGame game = new HeadlessGame(properties, new GameCallback(Writer.nullWriter()),
+                    OFF_GRID_MAX_TICKS);
+            game.run();
+            check(game.getNumTicks() > 0, "monsters at " + OFF_GRID_LOCATION + " as " + mode + " move");
+        } finally {
+            Files.deleteIfExists(mazePath);
+        }
+        System.out.println("off-grid monsters as " + mode + ": passed");
+    }
+
+    /**
+     * Check that moving every monster and PacMan allocates nothing once they are warmed up, as measured by
+     * the movement benchmark. While code is being compiled, the virtual machine itself may allocate a few
+     * bytes on the running thread, so the benchmark is run up to a number of times: an operation passes once
+     * a whole run of it allocates nothing, which it never does if it allocates on a fraction of its moves.
+     * The check is skipped if the memory allocated by a thread cannot be measured.
+     * @param mazePath path of the maze file, or null for the stock maze
+     * @param maze     the maze
+     * @see            MovementBenchmark
+     */
+    private void checkAllocationFree(String mazePath, GeneratedMaze maze) {
+        String mazeName = mazePath == null ? "stock maze" : maze.toString();
+        MovementBenchmark benchmark = new MovementBenchmark(ALLOCATION_WARMUP_OPS, ALLOCATION_MEASURED_OPS);
+        double[] minBytesPerOp = new double[ALLOCATION_FREE_OPERATIONS.length];
+        Arrays.fill(minBytesPerOp, Double.POSITIVE_INFINITY);
+        for (int run = 0; run < ALLOCATION_RUNS && Arrays.stream(minBytesPerOp).anyMatch(bytes -> bytes > 0);
+             run++) {
+            Benchmark.Measurement[] measurements = benchmark.run(mazePath, maze);
+            for (int i = 0; i < ALLOCATION_FREE_OPERATIONS.length; i++) {
+                Benchmark.Measurement measurement = null;
+                for (Benchmark.Measurement candidate : measurements)
+                    if (candidate.name().equals(ALLOCATION_FREE_OPERATIONS[i])) measurement = candidate;
+                check(measurement != null, ALLOCATION_FREE_OPERATIONS[i] + " is measured");
+                if (Double.isNaN(measurement.bytesPerOp())) {
+                    System.out.println("allocations on " + mazeName + ": skipped, as they cannot be measured");
+                    return;
+                }
+                minBytesPerOp[i] = Math.min(minBytesPerOp[i], measurement.bytesPerOp());
+            }
+        }
+        for (int i = 0; i < ALLOCATION_FREE_OPERATIONS.length; i++)
+            check(minBytesPerOp[i] == 0, ALLOCATION_FREE_OPERATIONS[i] + " allocates nothing on " + mazeName +
+                  ", but it allocates " + minBytesPerOp[i] + " B/op");
+        System.out.println("allocations on " + mazeName + ": passed");
+    }
+
+    /**
+     * Check a condition, which must hold regardless of whether assertions are enabled.
+     * @param condition the condition
+     * @param expected  description of what is expected, should the condition not hold
+     * @throws AssertionError if the condition does not hold
+     */
+    private static void check(boolean condition, String expected) {
+        if (! condition)
+            throw new AssertionError("expected: " + expected);
+    }
+}
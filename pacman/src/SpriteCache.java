@@ -0,0 +1,58 @@
+package src;
+import java.awt.GraphicsEnvironment;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * SpriteCache class resolving the sprite image file names of every kind of game actor once per process, so
+ * that an actor is not given names of its own to build. The images themselves are shared by JGameGrid: it
+ * decodes a sprite file the first time an actor uses it, along with all its rotations, and shares the result
+ * with every later actor using the same file; an actor given images rather than files would instead get its
+ * own copy of them. No sprite is loaded when running without a display (headless), since the images can
+ * neither be decoded nor shown.
+ * @see GameActor
+ */
+public final class SpriteCache {
+    // sprite files of every kind of actor, with the sprite directory as key
+    private static final Map<String, String[]> SPRITE_FILES = new ConcurrentHashMap<>();
+    private static final String[] NO_SPRITE_FILES = new String[0];
+
+    /**
+     * SpriteCache constructor, private as the class only has static methods.
+     */
+    private SpriteCache() {}
+
+    /**
+     * Get the sprite image files of an actor. Multiple sprites follow the naming convention of Actor class,
+     * where the sprite's index is appended to the file name (e.g. <code>pacpix_0.gif</code>). The files are
+     * shared by every actor of the same sprite directory, and must not be modified.
+     * @param directory  the directory of sprite image
+     * @param numSprites number of sprite images
+     * @return           the sprite image files, or none if running headless
+     */
+    public static String[] getSpriteFiles(String directory, int numSprites) {
+        if (GraphicsEnvironment.isHeadless())
+            return NO_SPRITE_FILES;
+        String[] spriteFiles = SPRITE_FILES.computeIfAbsent(directory, key -> resolveSpriteFiles(key, numSprites));
+        assert spriteFiles.length == Math.max(numSprites, 1);
+        return spriteFiles;
+    }
+
+    /**
+     * Resolve the sprite image files of an actor.
+     * @param directory  the directory of sprite image
+     * @param numSprites number of sprite images
+     * @return           the sprite image files
+     */
+    private static String[] resolveSpriteFiles(String directory, int numSprites) {
+        if (numSprites <= 1)
+            return new String[]{directory};
+        String[] spriteFiles = new String[numSprites];
+        int extension = directory.indexOf('.');
+        for (int i = 0; i < numSprites; i++)
+            spriteFiles[i] = (extension == -1) ? directory + "_" + i :
+                    directory.substring(0, extension) + "_" + i + directory.substring(extension);
+        return spriteFiles;
+    }
+}
@@ -0,0 +1,106 @@
+package src;
+import src.utility.GameCallback;
+import java.io.Writer;
+import java.util.Properties;
+
+
+/**
+ * StartupBenchmark class measuring the time and memory it takes to start a level: constructing the game,
+ * which loads its maze and instantiates every actor and item, then setting the game up, which puts them
+ * all to the game. Each is measured on the stock maze, as well as on generated mazes made of the stock maze
+ * repeated across and down, so that the cost of starting a level can be compared against the size of its
+ * maze.
+ * <p>
+ * Every level is started a number of times to let the JIT compiler settle before it is measured; the
+ * results are reported in milliseconds and in bytes allocated per start.
+ * @see Benchmark
+ */
+public class StartupBenchmark extends Benchmark {
+    // number of starts before measuring, and number of starts measured
+    public static final int DEFAULT_WARMUP_STARTS = 3;
+    public static final int DEFAULT_MEASURED_STARTS = 5;
+    // sizes of generated mazes, in number of stock mazes across and down
+    public static final String[] DEFAULT_MAZE_SIZES = {"10x10", "20x20", "50x50"};
+
+    // walkable cell of the stock maze, where PacMan is put
+    private static final String PACMAN_LOCATION = "1,1";
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    // benchmark properties
+    private final int warmupStarts;
+    private final int measuredStarts;
+    // elapsed nanoseconds and allocated bytes of constructing the game, then of setting it up, summed over
+    // the starts of a maze
+    private long constructNanos;
+    private long constructBytes;
+    private long setUpNanos;
+    private long setUpBytes;
+
+    /**
+     * StartupBenchmark constructor.
+     * @param warmupStarts   number of starts before measuring
+     * @param measuredStarts number of starts measured
+     */
+    public StartupBenchmark(int warmupStarts, int measuredStarts) {
+        assert warmupStarts >= 0 && measuredStarts > 0;
+        this.warmupStarts = warmupStarts;
+        this.measuredStarts = measuredStarts;
+    }
+
+
+    /**
+     * Start a level on a maze a number of times, and measure each phase of starting it. The level only has
+     * PacMan in the top left and no monsters, so that only the maze and its items vary.
+     * @param mazePath path of the maze file, or null for the stock maze
+     * @param maze     the maze, which is a single copy of the stock maze for the stock maze
+     * @return         the measurement of every phase
+     */
+    @Override
+    public Measurement[] run(String mazePath, GeneratedMaze maze) {
+        Properties properties = createProperties(mazePath, PACMAN_LOCATION);
+        for (int i = 0; i < warmupStarts; i++)
+            start(properties);
+
+        constructNanos = constructBytes = setUpNanos = setUpBytes = 0;
+        for (int i = 0; i < measuredStarts; i++)
+            start(properties);
+        boolean isAllocationMeasured = isAllocationMeasured();
+        return new Measurement[] {
+                new Measurement("construct game", (double) constructNanos / measuredStarts,
+                        isAllocationMeasured ? (double) constructBytes / measuredStarts : Double.NaN),
+                new Measurement("set up game", (double) setUpNanos / measuredStarts,
+                        isAllocationMeasured ? (double) setUpBytes / measuredStarts : Double.NaN)
+        };
+    }
+
+    /**
+     * Start a level once, adding the time and memory of each phase to their sums.
+     * @param properties properties of the level
+     */
+    private void start(Properties properties) {
+        long startBytes = getAllocatedBytes();
+        long start = System.nanoTime();
+        HeadlessGame game = new HeadlessGame(properties, new GameCallback(Writer.nullWriter()),
+                HeadlessGame.DEFAULT_MAX_TICKS);
+        constructNanos += System.nanoTime() - start;
+        constructBytes += getAllocatedBytes() - startBytes;
+
+        startBytes = getAllocatedBytes();
+        start = System.nanoTime();
+        game.setUp();
+        setUpNanos += System.nanoTime() - start;
+        setUpBytes += getAllocatedBytes() - startBytes;
+        addToChecksum(game.getManager().getItems().size() + game.getManager().getPills().size());
+    }
+
+
+    /**
+     * Print a measurement, in milliseconds and bytes per start.
+     * @param measurement the measurement
+     */
+    @Override
+    protected void printMeasurement(Measurement measurement) {
+        System.out.printf("  %-28s %10.2f ms/op %14.1f B/op%n", measurement.name(),
+                measurement.nanosPerOp() / NANOS_PER_MILLI, measurement.bytesPerOp());
+    }
+}
@@ -14,7 +14,12 @@ public class TX5 extends Monster {
     // Required variables for super constructor
     public static final int NUM_TX5_IMAGES = 1;
     public static final String DIRECTORY = "sprites/m_tx5.gif";
-    private static final int INIT_STOP_TIME = 5;
+    public static final int INIT_STOP_TIME = 5;
+    // non-diagonal directions, in order of preference when chasing around walls
+    private static final Location.CompassDirection[] CHASE_DIRECTIONS = {
+            Location.CompassDirection.EAST, Location.CompassDirection.SOUTH,
+            Location.CompassDirection.WEST, Location.CompassDirection.NORTH
+    };
 
     /**
      * TX5 Constructor
@@ -31,6 +36,7 @@ public class TX5 extends Monster {
     /**
      * Moves TX5 to its next location, determination of movement is purely to get closer to Pacman;
      * otherwise resorts to random movement. Overridden from Monster.
+     * @see TurnTable
      */
     @Override
     protected Location nextMonsterLocation(int stepSize) {
@@ -38,54 +44,67 @@ public class TX5 extends Monster {
         Location finalLoc = null;
 
         // With TX5, need to base direction to move on the position of pacman
-        Location pacLocation = getManager().getPacActor().getLocation();
         double oldDirection = this.getDirection();
-        Location.CompassDirection compassDir = getLocation().get4CompassDirectionTo(pacLocation);
+        Location.CompassDirection compassDir = getManager().isWallAwareChase() ?
+                this.getChaseDirection() : this.getDirectionToPacman();
         this.setDirection(compassDir);
 
         // This marks the direction nearest to pacman
-        Location next = this.getLocation().getAdjacentLocation(this.getDirection(), stepSize);
+        Location next = this.getAdjacentLocation(this.getDirection(), stepSize);
 
         // Only go to this direction if you can move here, and if it wasn't visited yet
         if (this.canMove(this.getDirection(), stepSize) && this.notVisited(next)) finalLoc = next;
 
-        // If it can't move here, has to move to a random spot
+        // If it can't move here, has to move to a random spot, turning as a troll would
         else {
             int sign = this.getRandomizer().nextDouble() < 0.5 ? 1 : -1;
+            int decision = TurnTable.decide(this.getOpenDirections(stepSize), Compass.indexOf(oldDirection),
+                                            sign);
             this.setDirection(oldDirection);
-            this.turn(sign*RIGHT_TURN_ANGLE);
-            next = this.getLocation().getAdjacentLocation(this.getDirection(), stepSize);
-
-            // Check if we can turn this direction
-            if (this.canMove(this.getDirection(), stepSize))
-                finalLoc = next;
+            this.turn(TurnTable.getTurnAngle(decision));
+            if (TurnTable.isMove(decision))
+                finalLoc = this.getAdjacentLocation(this.getDirection(), stepSize);
+        }
 
-            else {
-                // Try move forward
-                this.setDirection(oldDirection);
-                next = this.getLocation().getAdjacentLocation(this.getDirection(), stepSize);
-                if (this.canMove(this.getDirection(), stepSize)) finalLoc = next;
+        // Store location in visited list if not null
+        if (finalLoc != null) this.addVisitedList(finalLoc);
+        return finalLoc;
+    }
 
-                // Try turn the other direction
-                else {
-                    this.setDirection(oldDirection);
-                    this.turn(sign*LEFT_TURN_ANGLE);
-                    next = this.getLocation().getAdjacentLocation(this.getDirection(), stepSize);
-                    if (this.canMove(this.getDirection(), stepSize)) finalLoc = next;
 
-                    // Just move backwards
-                    else {
-                        this.setDirection(oldDirection);
-                        this.turn(BACK_TURN_ANGLE);
-                        next = this.getLocation().getAdjacentLocation(this.getDirection(), stepSize);
-                        if (this.canMove(this.getDirection(), stepSize)) finalLoc = next;
-                    }
-                }
+    /**
+     * Get the direction, among the 4 non-diagonal ones, of the neighboring location closest to Pacman
+     * around walls; used with wall-aware chasing. Ties are broken in the order east, south, west then
+     * north, so no random number is drawn. Should Pacman not be reachable from any neighboring location,
+     * it falls back to the direction of Pacman in a straight line.
+     * @return the direction closest to Pacman
+     * @see    FlowField
+     */
+    private Location.CompassDirection getChaseDirection() {
+        FlowField chaseField = getManager().getChaseField(false);
+        Location.CompassDirection closestDir = null;
+        int minDistance = FlowField.UNREACHABLE;
+        for (Location.CompassDirection dir : CHASE_DIRECTIONS) {
+            int distance = chaseField.getDistance(getX() + Compass.getOffsetX(dir.ordinal(), 1),
+                                                  getY() + Compass.getOffsetY(dir.ordinal(), 1));
+            if (distance < minDistance) {
+                minDistance = distance;
+                closestDir = dir;
             }
         }
+        if (closestDir == null)
+            closestDir = this.getDirectionToPacman();
+        return closestDir;
+    }
 
-        // Store location in visited list if not null
-        if (finalLoc != null) this.addVisitedList(finalLoc);
-        return finalLoc;
+    /**
+     * Get the direction, among the 4 non-diagonal ones, of Pacman in a straight line, as with
+     * <code>Location.get4CompassDirectionTo</code>.
+     * @return the direction of Pacman
+     * @see    Compass
+     */
+    private Location.CompassDirection getDirectionToPacman() {
+        PacActor pacActor = getManager().getPacActor();
+        return Compass.DIRECTIONS[Compass.get4CompassDirection(getX(), getY(), pacActor.getX(), pacActor.getY())];
     }
-}
\ No newline at end of file
+}
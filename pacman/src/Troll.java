@@ -26,45 +26,19 @@ public class Troll extends Monster {
     }
 
     /**
-     * Moves troll to its next location, determination of movement is completely random
+     * Moves troll to its next location, determination of movement is completely random. Where it turns is
+     * looked up in the turn table, from the directions open from its cell.
+     * @see TurnTable
      */
     @Override
     protected Location nextMonsterLocation(int stepSize) {
-        // Tracks whether a location was found
-        Location finalLoc = null;
-
         // First get a random direction to go to (left or right)
-        double oldDirection = this.getDirection();
         int sign = this.getRandomizer().nextDouble() < 0.5 ? 1 : -1;
-        this.turn(sign*RIGHT_TURN_ANGLE);
-        Location next = this.getLocation().getAdjacentLocation(this.getDirection(), stepSize);
-
-        if (this.canMove(this.getDirection(), stepSize)) finalLoc = next;
-
-        // If collision occurs going first given direction, try other direction
-        else {
-            // Try to move forward
-            this.setDirection(oldDirection);
-            next = this.getLocation().getAdjacentLocation(this.getDirection(), stepSize);
-            if (this.canMove(this.getDirection(), stepSize)) finalLoc = next;
-
-            else {
-                // Check if you can go the opposite turn, either left or right
-                this.turn(sign * LEFT_TURN_ANGLE);
-                next = this.getLocation().getAdjacentLocation(this.getDirection(), stepSize);
-                if (this.canMove(this.getDirection(), stepSize)) finalLoc = next;
-
-                // If nothing really worked, just go backwards
-                else {
-                    this.setDirection(oldDirection);
-                    this.turn(BACK_TURN_ANGLE);
-                    next = this.getLocation().getAdjacentLocation(this.getDirection(), stepSize);
-                    if (this.canMove(this.getDirection(), stepSize)) finalLoc = next;
-                }
-            }
-        }
 
-        // Tell game to change monster's location and store this as visited
-        return finalLoc;
+        // Else forward, else the opposite turn; if nothing really worked, it turns backwards and stands still
+        int decision = TurnTable.decide(this.getOpenDirections(stepSize), Compass.indexOf(this.getDirection()),
+                                        sign);
+        this.turn(TurnTable.getTurnAngle(decision));
+        return TurnTable.isMove(decision) ? this.getAdjacentLocation(this.getDirection(), stepSize) : null;
     }
-}
\ No newline at end of file
+}
